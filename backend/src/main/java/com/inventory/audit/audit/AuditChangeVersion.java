@@ -0,0 +1,24 @@
+package com.inventory.audit.audit;
+
+import com.inventory.audit.common.ChangeVersion;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Change version of the audit event table, used for list ETags.
+ * Commits from any instance move it on through the table's change notifications; this instance's own commits also
+ * move it on as soon as they complete.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class AuditChangeVersion extends ChangeVersion 
+{
+
+  public AuditChangeVersion() {super("audit_events");}
+
+  /* This method records a committed audit event recorded on this instance without waiting for its notification. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEventRecorded(AuditEventRecordedEvent event) {changed();}
+}
@@ -1,15 +1,22 @@
 package com.inventory.audit.audit;
 
 import com.inventory.audit.common.BadRequestException;
+import com.inventory.audit.common.CountMode;
+import com.inventory.audit.common.FieldSelection;
+import com.inventory.audit.common.PageResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.validation.Valid;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -31,9 +38,16 @@ public class AuditEventController
       "id", "eventType", "entityType", "entityId", "userId", "timestamp"
   ).collect(Collectors.toSet());
 
+  private static final Set<String> VALID_FIELDS = Stream.of(
+      "id", "eventType", "entityType", "entityId", "userId", "details", "timestamp"
+  ).collect(Collectors.toSet());
+
   @Autowired
   private AuditEventService service;
 
+  @Autowired
+  private AuditEventStream eventStream;
+
   /* This method validates the pagination parameters. */
   private void validatePaginationParams(int page, int size) 
   {
@@ -52,13 +66,24 @@ public class AuditEventController
     }
   }
 
+  /* This method returns the audit events matching the filter with only the requested fields. */
+  private ResponseEntity<?> projectFields(AuditEventFilter filter, String fields, Pageable pageable, String count) 
+  {
+    FieldSelection selection = FieldSelection.parse(fields, VALID_FIELDS);
+    CountMode countMode = CountMode.from(count);
+    if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.findFieldsSlice(filter, selection, pageable, countMode));}
+    return ResponseEntity.ok(PageResponse.of(service.findFields(filter, selection, pageable)));
+  }
+
   /* This method returns all the audit events. */
   @GetMapping
-  public ResponseEntity<Page<AuditEvent>> getAllEvents(
+  public ResponseEntity<?> getAllEvents(
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size,
       @RequestParam(defaultValue = "timestamp") String sortBy,
-      @RequestParam(defaultValue = "DESC") String sortDir) 
+      @RequestParam(defaultValue = "DESC") String sortDir,
+      @RequestParam(defaultValue = "exact") String count,
+      @RequestParam(required = false) String fields) 
   {
     validatePaginationParams(page, size);
     validateSortField(sortBy);
@@ -67,8 +92,22 @@ public class AuditEventController
         ? Sort.by(sortBy).ascending() 
         : Sort.by(sortBy).descending();
     Pageable pageable = PageRequest.of(page, size, sort);
-    Page<AuditEvent> events = service.list(pageable);
-    return ResponseEntity.ok(events);
+    if (fields != null) {return projectFields(AuditEventFilter.all(), fields, pageable, count);}
+    CountMode countMode = CountMode.from(count);
+    if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.listSlice(pageable, countMode));}
+    Page<AuditEventView> events = service.list(pageable);
+    return ResponseEntity.ok(PageResponse.of(events));
+  }
+
+  /* This method streams newly recorded audit events matching the filters as Server-Sent Events. */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamEvents(
+      @RequestParam(required = false) String entityType,
+      @RequestParam(required = false) Long entityId,
+      @RequestParam(required = false) String eventType,
+      @RequestParam(required = false) String userId) 
+  {
+    return eventStream.subscribe(entityType, entityId, eventType, userId);
   }
 
   /* This method returns the audit event by id. */
@@ -76,7 +115,12 @@ public class AuditEventController
   public ResponseEntity<AuditEvent> getEventById(@PathVariable @NonNull Long id) 
   {
     AuditEvent event = service.get(id);
-    return ResponseEntity.ok(event);
+    // Audit events are never modified, so the id alone is the ETag; weak so the container may still gzip the body
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .varyBy(HttpHeaders.ACCEPT)
+        .eTag("W/\"" + event.getId() + "\"")
+        .body(event);
   }
 
   /* This method creates a new audit event. */
@@ -89,13 +133,15 @@ public class AuditEventController
 
   /* This method returns the audit events by entity type and entity id. */
   @GetMapping("/entity/{entityType}/{entityId}")
-  public ResponseEntity<Page<AuditEvent>> getEventsByEntity(
+  public ResponseEntity<?> getEventsByEntity(
       @PathVariable String entityType,
       @PathVariable Long entityId,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size,
       @RequestParam(defaultValue = "timestamp") String sortBy,
-      @RequestParam(defaultValue = "DESC") String sortDir) 
+      @RequestParam(defaultValue = "DESC") String sortDir,
+      @RequestParam(defaultValue = "exact") String count,
+      @RequestParam(required = false) String fields) 
   {
     validatePaginationParams(page, size);
     validateSortField(sortBy);
@@ -104,18 +150,23 @@ public class AuditEventController
         ? Sort.by(sortBy).ascending() 
         : Sort.by(sortBy).descending();
     Pageable pageable = PageRequest.of(page, size, sort);
-    Page<AuditEvent> events = service.findByEntity(entityType, entityId, pageable);
-    return ResponseEntity.ok(events);
+    if (fields != null) {return projectFields(new AuditEventFilter(entityType, entityId, null, null), fields, pageable, count);}
+    CountMode countMode = CountMode.from(count);
+    if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.findByEntitySlice(entityType, entityId, pageable, countMode));}
+    Page<AuditEventView> events = service.findByEntity(entityType, entityId, pageable);
+    return ResponseEntity.ok(PageResponse.of(events));
   }
 
   /* This method returns the audit events by entity type. */
   @GetMapping("/entity-type/{entityType}")
-  public ResponseEntity<Page<AuditEvent>> getEventsByEntityType(
+  public ResponseEntity<?> getEventsByEntityType(
       @PathVariable String entityType,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size,
       @RequestParam(defaultValue = "timestamp") String sortBy,
-      @RequestParam(defaultValue = "DESC") String sortDir) 
+      @RequestParam(defaultValue = "DESC") String sortDir,
+      @RequestParam(defaultValue = "exact") String count,
+      @RequestParam(required = false) String fields) 
   {
     validatePaginationParams(page, size);
     validateSortField(sortBy);
@@ -124,18 +175,23 @@ public class AuditEventController
         ? Sort.by(sortBy).ascending() 
         : Sort.by(sortBy).descending();
     Pageable pageable = PageRequest.of(page, size, sort);
-    Page<AuditEvent> events = service.findByEntityType(entityType, pageable);
-    return ResponseEntity.ok(events);
+    if (fields != null) {return projectFields(new AuditEventFilter(entityType, null, null, null), fields, pageable, count);}
+    CountMode countMode = CountMode.from(count);
+    if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.findByEntityTypeSlice(entityType, pageable, countMode));}
+    Page<AuditEventView> events = service.findByEntityType(entityType, pageable);
+    return ResponseEntity.ok(PageResponse.of(events));
   }
 
   /* This method returns the audit events by event type. */
   @GetMapping("/event-type/{eventType}")
-  public ResponseEntity<Page<AuditEvent>> getEventsByEventType(
+  public ResponseEntity<?> getEventsByEventType(
       @PathVariable String eventType,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size,
       @RequestParam(defaultValue = "timestamp") String sortBy,
-      @RequestParam(defaultValue = "DESC") String sortDir) 
+      @RequestParam(defaultValue = "DESC") String sortDir,
+      @RequestParam(defaultValue = "exact") String count,
+      @RequestParam(required = false) String fields) 
   {
     validatePaginationParams(page, size);
     validateSortField(sortBy);
@@ -144,18 +200,23 @@ public class AuditEventController
         ? Sort.by(sortBy).ascending() 
         : Sort.by(sortBy).descending();
     Pageable pageable = PageRequest.of(page, size, sort);
-    Page<AuditEvent> events = service.findByEventType(eventType, pageable);
-    return ResponseEntity.ok(events);
+    if (fields != null) {return projectFields(new AuditEventFilter(null, null, eventType, null), fields, pageable, count);}
+    CountMode countMode = CountMode.from(count);
+    if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.findByEventTypeSlice(eventType, pageable, countMode));}
+    Page<AuditEventView> events = service.findByEventType(eventType, pageable);
+    return ResponseEntity.ok(PageResponse.of(events));
   }
 
   /* This method returns the audit events by user id. */
   @GetMapping("/user/{userId}")
-  public ResponseEntity<Page<AuditEvent>> getEventsByUserId(
+  public ResponseEntity<?> getEventsByUserId(
       @PathVariable String userId,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "50") int size,
       @RequestParam(defaultValue = "timestamp") String sortBy,
-      @RequestParam(defaultValue = "DESC") String sortDir) 
+      @RequestParam(defaultValue = "DESC") String sortDir,
+      @RequestParam(defaultValue = "exact") String count,
+      @RequestParam(required = false) String fields) 
   {
     validatePaginationParams(page, size);
     validateSortField(sortBy);
@@ -164,8 +225,11 @@ public class AuditEventController
         ? Sort.by(sortBy).ascending() 
         : Sort.by(sortBy).descending();
     Pageable pageable = PageRequest.of(page, size, sort);
-    Page<AuditEvent> events = service.findByUserId(userId, pageable);
-    return ResponseEntity.ok(events);
+    if (fields != null) {return projectFields(new AuditEventFilter(null, null, null, userId), fields, pageable, count);}
+    CountMode countMode = CountMode.from(count);
+    if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.findByUserIdSlice(userId, pageable, countMode));}
+    Page<AuditEventView> events = service.findByUserId(userId, pageable);
+    return ResponseEntity.ok(PageResponse.of(events));
   }
 }
 
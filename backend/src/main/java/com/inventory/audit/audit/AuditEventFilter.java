@@ -0,0 +1,45 @@
+package com.inventory.audit.audit;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filter criteria for audit event list queries.
+ * Every field is optional; set fields are combined with AND.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record AuditEventFilter(String entityType, Long entityId, String eventType, String userId) 
+{
+
+  /* This method returns a filter matching every audit event. */
+  public static AuditEventFilter all() {return new AuditEventFilter(null, null, null, null);}
+
+  /* This method converts the filter into a JPA specification. */
+  public Specification<AuditEvent> toSpecification() 
+  {
+    List<Specification<AuditEvent>> specs = new ArrayList<>();
+    if (entityType != null) {specs.add((root, query, cb) -> cb.equal(root.get("entityType"), entityType));}
+    if (entityId != null) {specs.add((root, query, cb) -> cb.equal(root.get("entityId"), entityId));}
+    if (eventType != null) {specs.add((root, query, cb) -> cb.equal(root.get("eventType"), eventType));}
+    if (userId != null) {specs.add((root, query, cb) -> cb.equal(root.get("userId"), userId));}
+    return Specification.allOf(specs);
+  }
+
+  /**
+   * Builds the equivalent SQL WHERE clause (including the WHERE keyword, or empty) for planner estimates.
+   * Bind values are appended to args in placeholder order.
+   */
+  public String toSqlWhere(List<Object> args) 
+  {
+    List<String> clauses = new ArrayList<>();
+    if (entityType != null) {clauses.add("entity_type = ?"); args.add(entityType);}
+    if (entityId != null) {clauses.add("entity_id = ?"); args.add(entityId);}
+    if (eventType != null) {clauses.add("event_type = ?"); args.add(eventType);}
+    if (userId != null) {clauses.add("user_id = ?"); args.add(userId);}
+    return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+  }
+}
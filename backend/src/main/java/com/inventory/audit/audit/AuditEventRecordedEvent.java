@@ -0,0 +1,19 @@
+package com.inventory.audit.audit;
+
+/**
+ * Application event published whenever an audit event is saved.
+ * Listeners that need the committed state should use @TransactionalEventListener.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record AuditEventRecordedEvent(AuditEventView event) 
+{
+
+  /* This method builds the event from a saved audit event. */
+  public static AuditEventRecordedEvent of(AuditEvent event) 
+  {
+    return new AuditEventRecordedEvent(new AuditEventView(event.getId(), event.getEventType(), event.getEntityType(), 
+        event.getEntityId(), event.getUserId(), event.getDetails(), event.getTimestamp()));
+  }
+}
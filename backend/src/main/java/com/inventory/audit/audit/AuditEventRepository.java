@@ -1,8 +1,18 @@
 package com.inventory.audit.audit;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for audit events.
@@ -15,10 +25,60 @@ import org.springframework.data.jpa.repository.JpaRepository;
 /* This interface is the repository for the audit events. */
 public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> 
 {
-  // Paginated queries
-  Page<AuditEvent> findByEntityTypeAndEntityId(String entityType, Long entityId, Pageable pageable);
-  Page<AuditEvent> findByEntityType(String entityType, Pageable pageable);
-  Page<AuditEvent> findByEventType(String eventType, Pageable pageable);
-  Page<AuditEvent> findByUserId(String userId, Pageable pageable);
+  // Paginated read queries project straight into views, so no entities are hydrated or tracked
+  @Query(value = "SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e",
+      countQuery = "SELECT COUNT(e) FROM AuditEvent e")
+  Page<AuditEventView> findAllViews(Pageable pageable);
+  
+  // Streams every event as a view with a server-side cursor; must be consumed inside a transaction
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e")
+  Stream<AuditEventView> streamAllViews();
+  
+  @Query(value = "SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.entityType = :entityType AND e.entityId = :entityId",
+      countQuery = "SELECT COUNT(e) FROM AuditEvent e WHERE e.entityType = :entityType AND e.entityId = :entityId")
+  Page<AuditEventView> findViewsByEntityTypeAndEntityId(@Param("entityType") String entityType, @Param("entityId") Long entityId, Pageable pageable);
+  
+  @Query(value = "SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.entityType = :entityType",
+      countQuery = "SELECT COUNT(e) FROM AuditEvent e WHERE e.entityType = :entityType")
+  Page<AuditEventView> findViewsByEntityType(@Param("entityType") String entityType, Pageable pageable);
+  
+  @Query(value = "SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.eventType = :eventType",
+      countQuery = "SELECT COUNT(e) FROM AuditEvent e WHERE e.eventType = :eventType")
+  Page<AuditEventView> findViewsByEventType(@Param("eventType") String eventType, Pageable pageable);
+  
+  @Query(value = "SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.userId = :userId",
+      countQuery = "SELECT COUNT(e) FROM AuditEvent e WHERE e.userId = :userId")
+  Page<AuditEventView> findViewsByUserId(@Param("userId") String userId, Pageable pageable);
+  
+  // Keyset pages of one entity's history, newest first; served by idx_entity_timeline without a sort step
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e " +
+      "WHERE e.entityType = :entityType AND e.entityId = :entityId ORDER BY e.timestamp DESC, e.id DESC")
+  List<AuditEventView> findHistory(@Param("entityType") String entityType, @Param("entityId") Long entityId, Limit limit);
+
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e " +
+      "WHERE e.entityType = :entityType AND e.entityId = :entityId " +
+      "AND e.timestamp <= :timestamp AND (e.timestamp < :timestamp OR e.id < :id) ORDER BY e.timestamp DESC, e.id DESC")
+  List<AuditEventView> findHistoryBefore(@Param("entityType") String entityType, @Param("entityId") Long entityId, 
+      @Param("timestamp") Instant timestamp, @Param("id") Long id, Limit limit);
+
+  // Count-free slice queries
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e")
+  Slice<AuditEventView> findSliceBy(Pageable pageable);
+  
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.entityType = :entityType AND e.entityId = :entityId")
+  Slice<AuditEventView> findSliceByEntityTypeAndEntityId(@Param("entityType") String entityType, @Param("entityId") Long entityId, Pageable pageable);
+  
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.entityType = :entityType")
+  Slice<AuditEventView> findSliceByEntityType(@Param("entityType") String entityType, Pageable pageable);
+  
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.eventType = :eventType")
+  Slice<AuditEventView> findSliceByEventType(@Param("eventType") String eventType, Pageable pageable);
+  
+  @Query("SELECT new com.inventory.audit.audit.AuditEventView(e.id, e.eventType, e.entityType, e.entityId, e.userId, e.details, e.timestamp) FROM AuditEvent e WHERE e.userId = :userId")
+  Slice<AuditEventView> findSliceByUserId(@Param("userId") String userId, Pageable pageable);
 }
 
@@ -1,13 +1,31 @@
 package com.inventory.audit.audit;
 
 import com.inventory.audit.common.BadRequestException;
+import com.inventory.audit.common.CountMode;
+import com.inventory.audit.common.CursorPage;
+import com.inventory.audit.common.FieldProjector;
+import com.inventory.audit.common.FieldSelection;
+import com.inventory.audit.common.KeysetCursor;
 import com.inventory.audit.common.NotFoundException;
+import com.inventory.audit.common.RowCountEstimator;
+import com.inventory.audit.common.SingleFlight;
+import com.inventory.audit.common.SingleFlightRegistry;
+import com.inventory.audit.common.VersionedKey;
+import com.inventory.audit.common.SliceResponse;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for managing audit events.
@@ -17,17 +35,39 @@ import java.time.Instant;
  * @version 1.0
  */
 
-/* This class is the service for the audit events. */
+/* This class is the service for the audit events; reads run in read-only transactions. */
 @Service
+@Transactional(readOnly = true)
 public class AuditEventService 
 {
 
   /* These are the methods for the audit events. */
   private final AuditEventRepository repo;
+  private final RowCountEstimator estimator;
+  private final FieldProjector projector;
+  private final ApplicationEventPublisher eventPublisher;
+  private final AuditChangeVersion changeVersion;
+  private final SingleFlight<VersionedKey<Pageable>, Page<AuditEventView>> listFlight;
+  private final SingleFlight<VersionedKey<Pageable>, Slice<AuditEventView>> listSliceFlight;
+
+  public AuditEventService(AuditEventRepository repo, RowCountEstimator estimator, FieldProjector projector, 
+      ApplicationEventPublisher eventPublisher, AuditChangeVersion changeVersion, SingleFlightRegistry singleFlights) 
+  {
+    this.repo = repo;
+    this.estimator = estimator;
+    this.projector = projector;
+    this.eventPublisher = eventPublisher;
+    this.changeVersion = changeVersion;
+    this.listFlight = singleFlights.create("audit.list");
+    this.listSliceFlight = singleFlights.create("audit.listSlice");
+  }
 
-  public AuditEventService(AuditEventRepository repo) {this.repo = repo;}
-
-  public Page<AuditEvent> list(@NonNull Pageable pageable) {return repo.findAll(pageable);}
+  /* This method returns a page of all audit events; identical concurrent calls at the latest table version seen here share one query, run outside a service transaction so waiting callers hold no connection. */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public Page<AuditEventView> list(@NonNull Pageable pageable) 
+  {
+    return listFlight.execute(new VersionedKey<>(pageable, changeVersion.latest()), () -> repo.findAllViews(pageable));
+  }
 
   public AuditEvent get(Long id) 
   {
@@ -36,6 +76,7 @@ public class AuditEventService
   }
 
   /* This method creates a new audit event. */
+  @Transactional
   public AuditEvent create(AuditEventRequest req) 
   {
     AuditEvent event = new AuditEvent();
@@ -45,10 +86,13 @@ public class AuditEventService
     event.setUserId(req.getUserId());
     event.setDetails(req.getDetails());
     event.setTimestamp(Instant.now());
-    return repo.save(event);
+    AuditEvent saved = repo.save(event);
+    eventPublisher.publishEvent(AuditEventRecordedEvent.of(saved));
+    return saved;
   }
 
   /* This method records a new audit event. */
+  @Transactional
   public AuditEvent record(String eventType, String entityType, Long entityId, String userId, String details) 
   {
     if (eventType == null || eventType.isBlank()) {throw new BadRequestException("Event type cannot be null or empty");}
@@ -62,40 +106,141 @@ public class AuditEventService
     event.setUserId(userId); // Can be null
     event.setDetails(details); // Can be null
     event.setTimestamp(Instant.now());
-    return repo.save(event);
+    AuditEvent saved = repo.save(event);
+    eventPublisher.publishEvent(AuditEventRecordedEvent.of(saved));
+    return saved;
   }
 
   /* This method finds the audit events by entity type and entity id. */
-  public Page<AuditEvent> findByEntity(String entityType, Long entityId, @NonNull Pageable pageable) 
+  public Page<AuditEventView> findByEntity(String entityType, Long entityId, @NonNull Pageable pageable) 
+  {
+    if (entityType == null || entityType.isBlank()) {throw new BadRequestException("Entity type cannot be null or empty");}
+    if (entityId == null) {throw new BadRequestException("Entity ID cannot be null");}
+
+    return repo.findViewsByEntityTypeAndEntityId(entityType, entityId, pageable);
+  }
+
+  /* This method returns a keyset page of one entity's audit events, newest first, starting after the cursor. */
+  public CursorPage<AuditEventView> findByEntityAfter(String entityType, Long entityId, KeysetCursor after, int size) 
   {
     if (entityType == null || entityType.isBlank()) {throw new BadRequestException("Entity type cannot be null or empty");}
     if (entityId == null) {throw new BadRequestException("Entity ID cannot be null");}
 
-    return repo.findByEntityTypeAndEntityId(entityType, entityId, pageable);
+    // One extra row tells whether another page follows, without a COUNT
+    Limit limit = Limit.of(size + 1);
+    List<AuditEventView> rows = after == null
+        ? repo.findHistory(entityType, entityId, limit)
+        : repo.findHistoryBefore(entityType, entityId, after.sortKey(), after.id(), limit);
+    boolean hasNext = rows.size() > size;
+    List<AuditEventView> content = hasNext ? rows.subList(0, size) : rows;
+
+    String nextCursor = null;
+    if (hasNext) 
+    {
+      AuditEventView last = content.get(content.size() - 1);
+      nextCursor = new KeysetCursor(last.timestamp(), last.id()).encode();
+    }
+    return new CursorPage<>(content, size, hasNext, nextCursor);
   }
 
   /* This method finds the audit events by entity type. */
-  public Page<AuditEvent> findByEntityType(String entityType, @NonNull Pageable pageable) 
+  public Page<AuditEventView> findByEntityType(String entityType, @NonNull Pageable pageable) 
   {
     if (entityType == null || entityType.isBlank()) {throw new BadRequestException("Entity type cannot be null or empty");}
 
-    return repo.findByEntityType(entityType, pageable);
+    return repo.findViewsByEntityType(entityType, pageable);
   }
 
   /* This method finds the audit events by event type. */
-  public Page<AuditEvent> findByEventType(String eventType, @NonNull Pageable pageable) 
+  public Page<AuditEventView> findByEventType(String eventType, @NonNull Pageable pageable) 
   {
     if (eventType == null || eventType.isBlank()) {throw new BadRequestException("Event type cannot be null or empty");}
 
-    return repo.findByEventType(eventType, pageable);
+    return repo.findViewsByEventType(eventType, pageable);
   }
 
   /* This method finds the audit events by user id. */
-  public Page<AuditEvent> findByUserId(String userId, @NonNull Pageable pageable) 
+  public Page<AuditEventView> findByUserId(String userId, @NonNull Pageable pageable) 
   {
     if (userId == null || userId.isBlank()) {throw new BadRequestException("User ID cannot be null or empty");}
 
-    return repo.findByUserId(userId, pageable);
+    return repo.findViewsByUserId(userId, pageable);
+  }
+
+  /* This method returns a slice of all the audit events without counting them; identical concurrent calls share one query, as in list. */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public SliceResponse<AuditEventView> listSlice(@NonNull Pageable pageable, CountMode countMode) 
+  {
+    Long estimate = countMode == CountMode.ESTIMATE ? estimator.estimateTable("audit_events") : null;
+    Slice<AuditEventView> slice = listSliceFlight.execute(new VersionedKey<>(pageable, changeVersion.latest()), 
+        () -> repo.findSliceBy(pageable));
+    return SliceResponse.of(slice, estimate);
+  }
+
+  /* This method finds a slice of the audit events by entity type and entity id without counting them. */
+  public SliceResponse<AuditEventView> findByEntitySlice(String entityType, Long entityId, @NonNull Pageable pageable, CountMode countMode) 
+  {
+    if (entityType == null || entityType.isBlank()) {throw new BadRequestException("Entity type cannot be null or empty");}
+    if (entityId == null) {throw new BadRequestException("Entity ID cannot be null");}
+
+    Long estimate = countMode == CountMode.ESTIMATE 
+        ? estimator.estimateQuery("SELECT 1 FROM audit_events WHERE entity_type = ? AND entity_id = ?", entityType, entityId) 
+        : null;
+    return SliceResponse.of(repo.findSliceByEntityTypeAndEntityId(entityType, entityId, pageable), estimate);
   }
-}
 
+  /* This method finds a slice of the audit events by entity type without counting them. */
+  public SliceResponse<AuditEventView> findByEntityTypeSlice(String entityType, @NonNull Pageable pageable, CountMode countMode) 
+  {
+    if (entityType == null || entityType.isBlank()) {throw new BadRequestException("Entity type cannot be null or empty");}
+
+    Long estimate = countMode == CountMode.ESTIMATE 
+        ? estimator.estimateQuery("SELECT 1 FROM audit_events WHERE entity_type = ?", entityType) 
+        : null;
+    return SliceResponse.of(repo.findSliceByEntityType(entityType, pageable), estimate);
+  }
+
+  /* This method finds a slice of the audit events by event type without counting them. */
+  public SliceResponse<AuditEventView> findByEventTypeSlice(String eventType, @NonNull Pageable pageable, CountMode countMode) 
+  {
+    if (eventType == null || eventType.isBlank()) {throw new BadRequestException("Event type cannot be null or empty");}
+
+    Long estimate = countMode == CountMode.ESTIMATE 
+        ? estimator.estimateQuery("SELECT 1 FROM audit_events WHERE event_type = ?", eventType) 
+        : null;
+    return SliceResponse.of(repo.findSliceByEventType(eventType, pageable), estimate);
+  }
+
+  /* This method finds a slice of the audit events by user id without counting them. */
+  public SliceResponse<AuditEventView> findByUserIdSlice(String userId, @NonNull Pageable pageable, CountMode countMode) 
+  {
+    if (userId == null || userId.isBlank()) {throw new BadRequestException("User ID cannot be null or empty");}
+
+    Long estimate = countMode == CountMode.ESTIMATE 
+        ? estimator.estimateQuery("SELECT 1 FROM audit_events WHERE user_id = ?", userId) 
+        : null;
+    return SliceResponse.of(repo.findSliceByUserId(userId, pageable), estimate);
+  }
+
+  /* This method returns a page of the matching audit events with only the selected fields. */
+  public Page<Map<String, Object>> findFields(AuditEventFilter filter, FieldSelection fields, @NonNull Pageable pageable) 
+  {
+    return projector.findPage(AuditEvent.class, filter.toSpecification(), fields, pageable);
+  }
+
+  /* This method returns a slice of the matching audit events with only the selected fields, without counting them. */
+  public SliceResponse<Map<String, Object>> findFieldsSlice(AuditEventFilter filter, FieldSelection fields, 
+      @NonNull Pageable pageable, CountMode countMode) 
+  {
+    Long estimate = null;
+    if (countMode == CountMode.ESTIMATE) 
+    {
+      List<Object> args = new ArrayList<>();
+      String where = filter.toSqlWhere(args);
+      estimate = where.isEmpty() 
+          ? estimator.estimateTable("audit_events") 
+          : estimator.estimateQuery("SELECT 1 FROM audit_events" + where, args.toArray());
+    }
+    return SliceResponse.of(projector.findSlice(AuditEvent.class, filter.toSpecification(), fields, pageable), estimate);
+  }
+}
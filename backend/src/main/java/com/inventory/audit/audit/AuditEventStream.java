@@ -0,0 +1,43 @@
+package com.inventory.audit.audit;
+
+import com.inventory.audit.common.EventBroadcaster;
+import com.inventory.audit.common.EventBroadcasterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live stream of committed audit events for browser views that would otherwise poll.
+ * Every {@link AuditEventRecordedEvent} is published to the subscribers once its transaction commits.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class AuditEventStream
+{
+
+  private final EventBroadcaster<AuditEventView> broadcaster;
+
+  public AuditEventStream(EventBroadcasterRegistry registry)
+  {
+    this.broadcaster = registry.create("audit");
+  }
+
+  /* This method opens a stream of the audit events matching every given filter; null filters match anything. */
+  public SseEmitter subscribe(String entityType, Long entityId, String eventType, String userId)
+  {
+    return broadcaster.subscribe(event ->
+        (entityType == null || entityType.equals(event.entityType()))
+        && (entityId == null || entityId.equals(event.entityId()))
+        && (eventType == null || eventType.equals(event.eventType()))
+        && (userId == null || userId.equals(event.userId())));
+  }
+
+  /* This method publishes a committed audit event to the subscribers. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onEventRecorded(AuditEventRecordedEvent event)
+  {
+    broadcaster.publish(event.event());
+  }
+}
@@ -0,0 +1,13 @@
+package com.inventory.audit.audit;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of an audit event, populated directly by list queries.
+ * Serializes to the same JSON as {@link AuditEvent} without hydrating a managed entity.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record AuditEventView(Long id, String eventType, String entityType, Long entityId, String userId, 
+    String details, Instant timestamp) {}
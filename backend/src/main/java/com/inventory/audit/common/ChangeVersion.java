@@ -0,0 +1,60 @@
+package com.inventory.audit.common;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of a table, kept in memory and moved on by the commits that write it.
+ * A statement-level trigger on the table notifies every instance once a writing transaction commits (see
+ * {@link TableChangeListener}), so the version depends only on commits to this table and reading it takes no query.
+ * Each instance numbers the changes it has seen under an id of its own, so tokens from different instances never match.
+ * While no connection is listening, commits may go unseen, so there is no version and every read gets a generation
+ * of its own.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class ChangeVersion
+{
+
+  private final String tableName;
+  private final String instance = Long.toString(UUID.randomUUID().getMostSignificantBits() & Long.MAX_VALUE, 36);
+  private final AtomicReference<State> state = new AtomicReference<>(new State(false, 0));
+
+  protected ChangeVersion(String tableName) {this.tableName = tableName;}
+
+  /* This record is whether changes are being listened for, and how many have been seen on this instance. */
+  private record State(boolean tracking, long generation) {}
+
+  /* This method returns the table whose notifications move this version on. */
+  public String tableName() {return tableName;}
+
+  /* This method records a committed change to the table. */
+  public void changed() {state.updateAndGet(last -> new State(last.tracking(), last.generation() + 1));}
+
+  /* This method starts handing out versions once changes are listened for; it counts as a change, as some may have been missed. */
+  void tracking() {state.updateAndGet(last -> new State(true, last.generation() + 1));}
+
+  /* This method stops handing out versions while changes may go unseen. */
+  void untracked() {state.updateAndGet(last -> new State(false, last.generation() + 1));}
+
+  /**
+   * Returns the generation of this instance's version, with no query. It moves on with every change seen, so it is
+   * at least as new as any version a caller has already read, such as the one its conditional GET was checked against.
+   */
+  public long latest()
+  {
+    State current = state.get();
+    if (current.tracking()) {return current.generation();}
+    return state.updateAndGet(last -> last.tracking() ? last : new State(false, last.generation() + 1)).generation();
+  }
+
+  /* This method returns a weak ETag for the current version of the given representation variant, or null while changes are not tracked; weak so the container may still gzip the body. */
+  public String etag(String variant)
+  {
+    State current = state.get();
+    if (!current.tracking()) {return null;}
+    return "W/\"" + tableName + "-" + instance + "." + Long.toString(current.generation(), 36) + "-"
+        + Integer.toHexString(variant == null ? 0 : variant.hashCode()) + "\"";
+  }
+}
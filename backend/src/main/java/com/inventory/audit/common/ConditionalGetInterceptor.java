@@ -0,0 +1,36 @@
+package com.inventory.audit.common;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers conditional GETs for list and summary endpoints from a table-level {@link ChangeVersion}.
+ * The ETag is the table version plus the Accept header, so a matching If-None-Match is answered with
+ * 304 before the controller runs: an in-memory version read, no query, no serialization. Responses may be
+ * stored by the client but must be revalidated on every use. While the version is unknown, responses carry no ETag.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor 
+{
+
+  private final ChangeVersion changeVersion;
+
+  public ConditionalGetInterceptor(ChangeVersion changeVersion) {this.changeVersion = changeVersion;}
+
+  @Override
+  public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) 
+  {
+    if (!"GET".equals(request.getMethod())) {return true;}
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    String etag = changeVersion.etag(request.getHeader(HttpHeaders.ACCEPT));
+    if (etag == null) {return true;}
+    return !new ServletWebRequest(request, response).checkNotModified(etag);
+  }
+}
@@ -0,0 +1,24 @@
+package com.inventory.audit.common;
+
+/**
+ * Controls how paged endpoints report the total number of matching rows.
+ * EXACT runs a COUNT query, ESTIMATE uses planner statistics, and NONE only reports whether a next page exists.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public enum CountMode 
+{
+  EXACT, ESTIMATE, NONE;
+
+  /* This method parses the count request parameter. */
+  public static CountMode from(String value) 
+  {
+    if (value == null || value.isBlank()) {return EXACT;}
+    for (CountMode mode : values()) 
+    {
+      if (mode.name().equalsIgnoreCase(value)) {return mode;}
+    }
+    throw new BadRequestException("Invalid count mode: " + value + ". Valid modes are: exact, estimate, none");
+  }
+}
@@ -0,0 +1,13 @@
+package com.inventory.audit.common;
+
+import java.util.List;
+
+/**
+ * Record representing one page of a keyset-paginated result.
+ * Contains the page content, the requested size, whether more rows follow, and the
+ * cursor to pass as {@code after} to fetch the next page.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {}
@@ -0,0 +1,228 @@
+package com.inventory.audit.common;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Fans events out to Server-Sent Events subscribers.
+ * Each subscriber has a filter and a bounded buffer. Publishing only offers the event to the buffers of matching
+ * subscribers; a small shared pool writes buffered events to the connections. An idle subscriber therefore holds
+ * no thread and costs only its emitter and an empty queue.
+ * A subscriber whose buffer fills up is sent an "overflow" event and disconnected instead of holding the others back;
+ * it should reload its view and reconnect. A subscriber whose connection stops taking data blocks its write before
+ * its buffer fills; once a write has been blocked for the send timeout the subscriber is dropped and the pool
+ * replaces the blocked thread, up to its cap, so stalled clients cannot starve the rest. The dropped stream is
+ * completed with an error as soon as the blocked write gives up: the emitter only completes while no write holds it.
+ * Created through {@link EventBroadcasterRegistry}.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class EventBroadcaster<T>
+{
+
+  // Queued in place of an event to have the sender write a keep-alive comment
+  private static final Object HEARTBEAT = new Object();
+  // Send start time of a write given up on as stalled, whose thread the pool replaced or, at its cap, did not;
+  // a write in progress holds its System.nanoTime() start
+  private static final long STALLED = Long.MIN_VALUE;
+  private static final long STALLED_UNREPLACED = Long.MIN_VALUE + 1;
+  private static final long IDLE = 0;
+
+  private final String name;
+  private final int bufferSize;
+  private final long timeoutMs;
+  private final SenderPool sender;
+  private final Counter overflows;
+  private final Counter stalls;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  EventBroadcaster(String name, int bufferSize, long timeoutMs, SenderPool sender, Counter overflows, Counter stalls)
+  {
+    this.name = name;
+    this.bufferSize = bufferSize;
+    this.timeoutMs = timeoutMs;
+    this.sender = sender;
+    this.overflows = overflows;
+    this.stalls = stalls;
+  }
+
+  /* This method opens a stream receiving the published events that pass the filter. */
+  public SseEmitter subscribe(Predicate<? super T> filter)
+  {
+    return subscribe(filter, new SseEmitter(timeoutMs));
+  }
+
+  SseEmitter subscribe(Predicate<? super T> filter, SseEmitter emitter)
+  {
+    Subscriber subscriber = new Subscriber(emitter, filter);
+    emitter.onCompletion(subscriber::close);
+    emitter.onTimeout(subscriber::close);
+    emitter.onError(e -> subscriber.close());
+    subscribers.add(subscriber);
+    subscriber.offer(HEARTBEAT);
+    return emitter;
+  }
+
+  /* This method offers an event to every matching subscriber without blocking on any of them. */
+  public void publish(T event)
+  {
+    for (Subscriber subscriber : subscribers)
+    {
+      if (subscriber.filter.test(event)) {subscriber.offer(event);}
+    }
+  }
+
+  /* This method queues a keep-alive comment for idle subscribers, which also detects closed connections. */
+  void heartbeat()
+  {
+    for (Subscriber subscriber : subscribers)
+    {
+      if (subscriber.queue.isEmpty()) {subscriber.offer(HEARTBEAT);}
+    }
+  }
+
+  /* This method drops the subscribers whose current write has been blocked for longer than the timeout; the writing thread completes their emitters with an error when the write returns, since completing takes the lock that write holds. */
+  void dropStalled(long sendTimeoutNanos)
+  {
+    long now = System.nanoTime();
+    for (Subscriber subscriber : subscribers)
+    {
+      long started = subscriber.sendStarted.get();
+      if (!isSending(started) || now - started <= sendTimeoutNanos) {continue;}
+
+      boolean replaced = sender.blockingStarted();
+      if (!subscriber.sendStarted.compareAndSet(started, replaced ? STALLED : STALLED_UNREPLACED))
+      {
+        // The write returned in the meantime
+        if (replaced) {sender.blockingEnded();}
+        continue;
+      }
+      subscriber.close();
+      stalls.increment();
+    }
+  }
+
+  /* This method ends every open stream. */
+  void close()
+  {
+    for (Subscriber subscriber : subscribers)
+    {
+      subscriber.close();
+      subscriber.emitter.complete();
+    }
+  }
+
+  int subscriberCount() { return subscribers.size(); }
+
+  private static boolean isSending(long started)
+  {
+    return started != IDLE && started != STALLED && started != STALLED_UNREPLACED;
+  }
+
+  /* This class is one open stream with its pending events; it runs on the sender pool to drain them. */
+  private final class Subscriber implements Runnable
+  {
+    final SseEmitter emitter;
+    final Predicate<? super T> filter;
+    // Linked so that an idle subscriber allocates nothing for its buffer
+    final Queue<Object> queue = new LinkedBlockingQueue<>(bufferSize);
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    final AtomicLong sendStarted = new AtomicLong(IDLE);
+    volatile boolean overflowed;
+    volatile boolean closed;
+
+    Subscriber(SseEmitter emitter, Predicate<? super T> filter)
+    {
+      this.emitter = emitter;
+      this.filter = filter;
+    }
+
+    void offer(Object event)
+    {
+      if (closed || overflowed) {return;}
+      if (!queue.offer(event))
+      {
+        overflowed = true;
+        queue.clear();
+        overflows.increment();
+      }
+      schedule();
+    }
+
+    void schedule()
+    {
+      if (scheduled.compareAndSet(false, true)) {sender.execute(this);}
+    }
+
+    @Override
+    public void run()
+    {
+      try
+      {
+        Object event;
+        while (!overflowed && !closed && (event = queue.poll()) != null)
+        {
+          if (!send(event == HEARTBEAT
+              ? SseEmitter.event().comment("keep-alive")
+              : SseEmitter.event().name(name).data(event, MediaType.APPLICATION_JSON)))
+          {
+            // Dropped as stalled while this write was blocked
+            emitter.completeWithError(new IOException("Subscriber stopped taking data"));
+            return;
+          }
+        }
+        if (overflowed && !closed)
+        {
+          close();
+          emitter.send(SseEmitter.event().name("overflow").data("Events were dropped; reload and reconnect"));
+          emitter.complete();
+        }
+      }
+      catch (IOException | IllegalStateException e)
+      {
+        // The connection is gone; the container reports it to the emitter, which completes it
+        close();
+      }
+      finally
+      {
+        scheduled.set(false);
+      }
+      if (!closed && (overflowed || !queue.isEmpty())) {schedule();}
+    }
+
+    /* This method writes one event, returning false if it was given up on as stalled before it returned. */
+    boolean send(SseEmitter.SseEventBuilder event) throws IOException
+    {
+      long now = System.nanoTime();
+      sendStarted.set(isSending(now) ? now : now + 2);
+      long started;
+      try
+      {
+        emitter.send(event);
+      }
+      finally
+      {
+        started = sendStarted.getAndSet(IDLE);
+        if (started == STALLED) {sender.blockingEnded();}
+      }
+      return started != STALLED && started != STALLED_UNREPLACED;
+    }
+
+    void close()
+    {
+      closed = true;
+      subscribers.remove(this);
+    }
+  }
+}
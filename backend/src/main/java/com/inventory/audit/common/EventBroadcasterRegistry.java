@@ -0,0 +1,93 @@
+package com.inventory.audit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates named {@link EventBroadcaster}s sharing one sender pool, and sends their keep-alive comments.
+ * Each broadcaster reports the gauge "sse.subscribers", the counter "sse.overflows" (subscribers disconnected
+ * because their buffer filled up) and the counter "sse.stalls" (subscribers dropped because a write to them stayed
+ * blocked for the send timeout), all tagged with its name.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class EventBroadcasterRegistry
+{
+
+  private final MeterRegistry meterRegistry;
+  private final int bufferSize;
+  private final long timeoutMs;
+  private final long sendTimeoutNanos;
+  private final SenderPool sender;
+  private final List<EventBroadcaster<?>> broadcasters = new CopyOnWriteArrayList<>();
+
+  public EventBroadcasterRegistry(MeterRegistry meterRegistry,
+      @Value("${app.event-stream.buffer-size:256}") int bufferSize,
+      @Value("${app.event-stream.timeout-ms:1800000}") long timeoutMs,
+      @Value("${app.event-stream.sender-threads:4}") int senderThreads,
+      @Value("${app.event-stream.send-timeout-ms:5000}") long sendTimeoutMs,
+      @Value("${app.event-stream.max-replaced-senders:64}") int maxReplacedSenders)
+  {
+    this.meterRegistry = meterRegistry;
+    this.bufferSize = bufferSize;
+    this.timeoutMs = timeoutMs;
+    this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("event-stream-");
+    threadFactory.setDaemon(true);
+    this.sender = new SenderPool(senderThreads, maxReplacedSenders, threadFactory);
+  }
+
+  /* This method creates a broadcaster whose events are sent under the given SSE event name. */
+  public <T> EventBroadcaster<T> create(String name)
+  {
+    Counter overflows = Counter.builder("sse.overflows")
+        .description("Subscribers disconnected because they fell too far behind")
+        .tag("name", name)
+        .register(meterRegistry);
+    Counter stalls = Counter.builder("sse.stalls")
+        .description("Subscribers dropped because a write to them stayed blocked")
+        .tag("name", name)
+        .register(meterRegistry);
+    EventBroadcaster<T> broadcaster = new EventBroadcaster<>(name, bufferSize, timeoutMs, sender, overflows, stalls);
+    Gauge.builder("sse.subscribers", broadcaster, EventBroadcaster::subscriberCount)
+        .description("Open Server-Sent Events streams")
+        .tag("name", name)
+        .register(meterRegistry);
+    broadcasters.add(broadcaster);
+    return broadcaster;
+  }
+
+  /* This method keeps idle streams open through proxies and notices clients that went away. */
+  @Scheduled(fixedDelayString = "${app.event-stream.heartbeat-interval-ms:25000}")
+  public void heartbeat()
+  {
+    broadcasters.forEach(EventBroadcaster::heartbeat);
+  }
+
+  /* This method drops subscribers whose connection stopped taking data, freeing the pool for the others. */
+  @Scheduled(fixedDelayString = "${app.event-stream.send-timeout-ms:5000}")
+  public void dropStalled()
+  {
+    broadcasters.forEach(broadcaster -> broadcaster.dropStalled(sendTimeoutNanos));
+  }
+
+  /* This method ends every stream on shutdown so clients reconnect to another instance. */
+  @PreDestroy
+  public void shutdown()
+  {
+    broadcasters.forEach(EventBroadcaster::close);
+    sender.shutdown();
+  }
+}
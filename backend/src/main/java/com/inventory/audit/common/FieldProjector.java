@@ -0,0 +1,138 @@
+package com.inventory.audit.common;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs list queries that select only the requested columns.
+ * Rows come back as tuples rather than managed entities, so unrequested columns are neither
+ * read from the database nor serialized, and nothing is registered in the persistence context.
+ * Specification queries over whole rows are built the same way, with the columns passed to a
+ * read-only view's constructor instead of collected into maps.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class FieldProjector 
+{
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /* This method returns a page of projected rows with an exact total, skipping the count when the page proves it. */
+  @Transactional(readOnly = true)
+  public <T> Page<Map<String, Object>> findPage(Class<T> type, Specification<T> spec, FieldSelection fields, Pageable pageable) 
+  {
+    List<Map<String, Object>> content = fetch(type, spec, fields, pageable, pageable.getPageSize());
+    return PageableExecutionUtils.getPage(content, pageable, () -> count(type, spec));
+  }
+
+  /* This method returns a slice of projected rows without counting them. */
+  @Transactional(readOnly = true)
+  public <T> Slice<Map<String, Object>> findSlice(Class<T> type, Specification<T> spec, FieldSelection fields, Pageable pageable) 
+  {
+    List<Map<String, Object>> content = fetch(type, spec, fields, pageable, pageable.getPageSize() + 1);
+    boolean hasNext = content.size() > pageable.getPageSize();
+    if (hasNext) {content = content.subList(0, pageable.getPageSize());}
+    return new SliceImpl<>(content, pageable, hasNext);
+  }
+
+  /* This method returns a page of rows constructed as views from the given columns, with an exact total, skipping the count when the page proves it. */
+  @Transactional(readOnly = true)
+  public <T, V> Page<V> findViewPage(Class<T> type, Class<V> view, List<String> columns, Specification<T> spec, Pageable pageable) 
+  {
+    List<V> content = fetchViews(type, view, columns, spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+    return PageableExecutionUtils.getPage(content, pageable, () -> count(type, spec));
+  }
+
+  /* This method returns a slice of rows constructed as views from the given columns without counting them. */
+  @Transactional(readOnly = true)
+  public <T, V> Slice<V> findViewSlice(Class<T> type, Class<V> view, List<String> columns, Specification<T> spec, Pageable pageable) 
+  {
+    List<V> content = fetchViews(type, view, columns, spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+    boolean hasNext = content.size() > pageable.getPageSize();
+    if (hasNext) {content = content.subList(0, pageable.getPageSize());}
+    return new SliceImpl<>(content, pageable, hasNext);
+  }
+
+  /* This method returns up to limit rows constructed as views from the given columns, in the given order. */
+  @Transactional(readOnly = true)
+  public <T, V> List<V> findViews(Class<T> type, Class<V> view, List<String> columns, Specification<T> spec, Sort sort, int limit) 
+  {
+    return fetchViews(type, view, columns, spec, sort, 0, limit);
+  }
+
+  private <T, V> List<V> fetchViews(Class<T> type, Class<V> view, List<String> columns, Specification<T> spec, Sort sort, 
+      long offset, int limit) 
+  {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<V> query = cb.createQuery(view);
+    Root<T> root = query.from(type);
+    query.select(cb.construct(view, columns.stream().<Selection<?>>map(root::get).toArray(Selection[]::new)));
+    Predicate predicate = spec.toPredicate(root, query, cb);
+    if (predicate != null) {query.where(predicate);}
+    query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+    return entityManager.createQuery(query)
+        .setFirstResult((int) offset)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
+  private <T> List<Map<String, Object>> fetch(Class<T> type, Specification<T> spec, FieldSelection fields, Pageable pageable, int limit) 
+  {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<T> root = query.from(type);
+    query.multiselect(fields.fields().stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList());
+    Predicate predicate = spec.toPredicate(root, query, cb);
+    if (predicate != null) {query.where(predicate);}
+    query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+    List<Tuple> tuples = entityManager.createQuery(query)
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(limit)
+        .getResultList();
+    List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+    for (Tuple tuple : tuples) 
+    {
+      Map<String, Object> row = new LinkedHashMap<>();
+      for (String field : fields.fields()) {row.put(field, tuple.get(field));}
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  private <T> long count(Class<T> type, Specification<T> spec) 
+  {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+    Root<T> root = query.from(type);
+    query.select(cb.count(root));
+    Predicate predicate = spec.toPredicate(root, query, cb);
+    if (predicate != null) {query.where(predicate);}
+    return entityManager.createQuery(query).getSingleResult();
+  }
+}
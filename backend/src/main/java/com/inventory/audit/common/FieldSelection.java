@@ -0,0 +1,35 @@
+package com.inventory.audit.common;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Record representing the entity attributes a client asked for with the "fields" request parameter.
+ * The id is always included so projected rows can still be identified.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record FieldSelection(List<String> fields) 
+{
+
+  /* This method parses a comma-separated field list, rejecting fields outside the allowed set. */
+  public static FieldSelection parse(String fields, Set<String> allowed) 
+  {
+    Set<String> selected = new LinkedHashSet<>();
+    selected.add("id");
+    for (String field : fields.split(",")) 
+    {
+      String trimmed = field.trim();
+      if (trimmed.isEmpty()) {continue;}
+      if (!allowed.contains(trimmed)) 
+      {
+        throw new BadRequestException("Invalid field: " + trimmed + ". Valid fields are: " + String.join(", ", allowed));
+      }
+      selected.add(trimmed);
+    }
+    return new FieldSelection(new ArrayList<>(selected));
+  }
+}
@@ -0,0 +1,48 @@
+package com.inventory.audit.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque cursor used for keyset (seek) pagination.
+ * Encodes the timestamp sort key of the last row on a page together with its id,
+ * which breaks ties between rows sharing the same timestamp.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record KeysetCursor(Instant sortKey, long id)
+{
+
+  private static final String SEPARATOR = ",";
+  // Well above the longest encode() output, so an oversized token is rejected before it is decoded
+  private static final int MAX_TOKEN_LENGTH = 128;
+
+  /* This method encodes the cursor as a URL-safe token. */
+  public String encode()
+  {
+    String raw = sortKey.toString() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /* This method decodes a token produced by encode(), returning null for a blank token. */
+  public static KeysetCursor decode(String token)
+  {
+    if (token == null || token.isBlank()) {return null;}
+    if (token.length() > MAX_TOKEN_LENGTH) {throw new BadRequestException("Invalid cursor");}
+
+    try
+    {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int split = raw.lastIndexOf(SEPARATOR);
+      if (split <= 0) {throw new BadRequestException("Invalid cursor");}
+      return new KeysetCursor(Instant.parse(raw.substring(0, split)), Long.parseLong(raw.substring(split + 1)));
+    }
+    catch (IllegalArgumentException | DateTimeParseException e)
+    {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+}
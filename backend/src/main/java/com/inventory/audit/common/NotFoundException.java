@@ -3,11 +3,13 @@ package com.inventory.audit.common;
 /**
  * Exception thrown when a requested resource is not found.
  * Typically used when an entity with the given ID does not exist.
+ * A miss is an expected outcome that always becomes a 404, so the exception skips capturing a stack trace,
+ * which would otherwise dominate the cost of answering a lookup of an unknown id or SKU.
  * 
  * @author Victor Tiradoegas
  * @version 1.0
  */
 public class NotFoundException extends RuntimeException
 {
-  public NotFoundException(String message) { super(message); }
+  public NotFoundException(String message) { super(message, null, false, false); }
 }
\ No newline at end of file
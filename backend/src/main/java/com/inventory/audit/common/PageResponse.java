@@ -0,0 +1,24 @@
+package com.inventory.audit.common;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Record representing a page fetched with an exact COUNT query.
+ * Replaces the serialized form of Spring's PageImpl, which repeats the paging metadata under
+ * pageable and sort objects, with the handful of fields clients actually read.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record PageResponse<T>(List<T> content, int page, int size, long totalElements, int totalPages, boolean hasNext) 
+{
+
+  /* This method builds a response from a page. */
+  public static <T> PageResponse<T> of(Page<T> page) 
+  {
+    return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), 
+        page.getTotalPages(), page.hasNext());
+  }
+}
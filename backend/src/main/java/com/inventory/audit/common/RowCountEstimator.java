@@ -0,0 +1,45 @@
+package com.inventory.audit.common;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimates row counts from PostgreSQL planner statistics instead of running COUNT(*).
+ * Whole-table estimates come from pg_class.reltuples; filtered estimates come from the
+ * row estimate of the top EXPLAIN plan node. Both are only as fresh as the last ANALYZE.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class RowCountEstimator 
+{
+
+  private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public RowCountEstimator(JdbcTemplate jdbcTemplate) {this.jdbcTemplate = jdbcTemplate;}
+
+  /* This method returns the estimated row count of a table, or null if it has never been analyzed. */
+  public Long estimateTable(String table) 
+  {
+    List<Long> rows = jdbcTemplate.queryForList(
+        "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+    if (rows.isEmpty() || rows.get(0) == null || rows.get(0) < 0) {return null;}
+    return rows.get(0);
+  }
+
+  /* This method returns the planner's row estimate for a SELECT statement. The SQL must be a trusted constant. */
+  public Long estimateQuery(String sql, Object... args) 
+  {
+    List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+    if (plan.isEmpty()) {return null;}
+    Matcher matcher = PLAN_ROWS.matcher(plan.get(0));
+    return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+  }
+}
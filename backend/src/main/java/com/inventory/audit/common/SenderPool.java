@@ -0,0 +1,57 @@
+package com.inventory.audit.common;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed pool of threads writing events to live-stream subscribers.
+ * A thread stuck in a write to a client that stopped reading is given up on: the pool grows by one thread
+ * for as long as that write stays blocked, so the other subscribers keep being served at full width. At most
+ * maxReplaced threads are replaced at once; past that the pool keeps its size and serves the rest more slowly.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+final class SenderPool implements Executor
+{
+
+  private final int threads;
+  private final int maxReplaced;
+  private final ThreadPoolExecutor executor;
+  private int blocked;
+
+  SenderPool(int threads, int maxReplaced, ThreadFactory threadFactory)
+  {
+    this.threads = threads;
+    this.maxReplaced = maxReplaced;
+    this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+  }
+
+  @Override
+  public void execute(Runnable task) {executor.execute(task);}
+
+  /* This method adds a thread in place of one blocked in a stalled write, returning false if the cap is reached. */
+  synchronized boolean blockingStarted()
+  {
+    if (blocked >= maxReplaced) {return false;}
+    blocked++;
+    executor.setMaximumPoolSize(threads + blocked);
+    executor.setCorePoolSize(threads + blocked);
+    return true;
+  }
+
+  /* This method removes the extra thread once a write it replaced has returned. */
+  synchronized void blockingEnded()
+  {
+    // Never below the configured size, which would fail as a core size under zero or above the maximum
+    if (blocked == 0) {return;}
+    blocked--;
+    executor.setCorePoolSize(threads + blocked);
+    executor.setMaximumPoolSize(threads + blocked);
+  }
+
+  void shutdown() {executor.shutdown();}
+}
@@ -0,0 +1,74 @@
+package com.inventory.audit.common;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical calls into one. The first caller for a key runs the loader; callers
+ * arriving while it is in flight wait for and share its result (or its exception). Nothing is kept
+ * once the call completes, so this complements a cache rather than replacing it.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class SingleFlight<K, V> 
+{
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter executed;
+  private final Counter collapsed;
+
+  SingleFlight(Counter executed, Counter collapsed) 
+  {
+    this.executed = executed;
+    this.collapsed = collapsed;
+  }
+
+  /* This method returns the loader's result for the key, sharing an in-flight call when there is one. */
+  public V execute(K key, Supplier<V> loader) 
+  {
+    CompletableFuture<V> call = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) 
+    {
+      collapsed.increment();
+      return await(existing);
+    }
+
+    executed.increment();
+    try 
+    {
+      V value = loader.get();
+      call.complete(value);
+      return value;
+    } 
+    catch (RuntimeException | Error e) 
+    {
+      call.completeExceptionally(e);
+      throw e;
+    } 
+    finally 
+    {
+      inFlight.remove(key, call);
+    }
+  }
+
+  private static <V> V await(CompletableFuture<V> call) 
+  {
+    try 
+    {
+      return call.join();
+    } 
+    catch (CompletionException e) 
+    {
+      if (e.getCause() instanceof RuntimeException cause) {throw cause;}
+      if (e.getCause() instanceof Error cause) {throw cause;}
+      throw e;
+    }
+  }
+}
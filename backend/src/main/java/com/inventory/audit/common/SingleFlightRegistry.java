@@ -0,0 +1,37 @@
+package com.inventory.audit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates named {@link SingleFlight} groups with their metrics.
+ * Each group reports the counter "singleflight.calls" tagged with its name and
+ * outcome=executed (calls that reached the loader) or outcome=collapsed (calls that shared another's result).
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class SingleFlightRegistry 
+{
+
+  private final MeterRegistry meterRegistry;
+
+  public SingleFlightRegistry(MeterRegistry meterRegistry) {this.meterRegistry = meterRegistry;}
+
+  /* This method creates a single-flight group reporting under the given name. */
+  public <K, V> SingleFlight<K, V> create(String name) 
+  {
+    return new SingleFlight<>(counter(name, "executed"), counter(name, "collapsed"));
+  }
+
+  private Counter counter(String name, String outcome) 
+  {
+    return Counter.builder("singleflight.calls")
+        .description("Calls through a single-flight group, by whether they ran or shared an in-flight result")
+        .tag("name", name)
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,37 @@
+package com.inventory.audit.common;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Record representing a page fetched without a COUNT query.
+ * Reports whether a next page exists and, when requested, an approximate total from planner statistics.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record SliceResponse<T>(List<T> content, int page, int size, boolean hasNext, Long totalEstimate) 
+{
+
+  /**
+   * Builds a response from a slice. When the slice itself proves the exact total (a last page),
+   * that total wins over the estimate, and the estimate is never allowed to undercount rows already seen.
+   */
+  public static <T> SliceResponse<T> of(Slice<T> slice, Long totalEstimate) 
+  {
+    Long total = totalEstimate;
+    long seen = slice.getPageable().isPaged() 
+        ? slice.getPageable().getOffset() + slice.getNumberOfElements() 
+        : slice.getNumberOfElements();
+    if (!slice.hasNext()) 
+    {
+      total = totalEstimate == null ? null : seen;
+    } 
+    else if (total != null && total <= seen) 
+    {
+      total = seen + 1;
+    }
+    return new SliceResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), total);
+  }
+}
@@ -0,0 +1,186 @@
+package com.inventory.audit.common;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listens on one dedicated connection for the table_changes notifications sent by the statement-level triggers of
+ * migration V14, and moves on the {@link ChangeVersion} of the table each one names. PostgreSQL sends a notification
+ * only once its transaction commits, so a version never moves ahead of what readers can see.
+ * The connection carries the application name the triggers look for, since they notify only while a listener is
+ * connected; each notifying commit briefly takes PostgreSQL's global notification queue lock.
+ * A transaction that wrote before the listener connected may not notify, so versions start handing out ETags only
+ * once every writing transaction open at that moment has ended. If the connection is lost the versions stop handing
+ * out ETags until listening resumes.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class TableChangeListener
+{
+
+  private static final Logger log = LoggerFactory.getLogger(TableChangeListener.class);
+  private static final String CHANNEL = "table_changes";
+
+  // Looked up by the notify_table_change trigger function in pg_stat_activity
+  private static final String APPLICATION_NAME = "table-change-listener";
+  private static final int POLL_TIMEOUT_MS = 1000;
+  private static final String OPEN_WRITERS_SQL = 
+      "SELECT backend_xid::text FROM pg_stat_activity WHERE datname = current_database() AND backend_xid IS NOT NULL";
+  private static final String STILL_OPEN_SQL = 
+      "SELECT count(*) FROM pg_stat_activity WHERE backend_xid::text = ANY(?)";
+
+  private final DataSource dataSource;
+  private final List<ChangeVersion> versions;
+  private final Map<String, ChangeVersion> byTable = new HashMap<>();
+  private final long reconnectDelayMs;
+  private volatile boolean running = true;
+  private Thread thread;
+
+  public TableChangeListener(DataSource dataSource, List<ChangeVersion> versions,
+      @Value("${app.change-notifications.reconnect-delay-ms:5000}") long reconnectDelayMs)
+  {
+    this.dataSource = dataSource;
+    this.versions = versions;
+    this.reconnectDelayMs = reconnectDelayMs;
+    versions.forEach(version -> byTable.put(version.tableName(), version));
+  }
+
+  /* This method starts listening once the application is up. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start()
+  {
+    thread = new Thread(this::listen, "table-change-listener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /* This method moves on the version of the named table; notifications for tables without one are ignored. */
+  void dispatch(String table)
+  {
+    ChangeVersion version = byTable.get(table);
+    if (version != null) {version.changed();}
+  }
+
+  private void listen()
+  {
+    while (running)
+    {
+      try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement())
+      {
+        statement.execute("SET application_name = '" + APPLICATION_NAME + "'");
+        try
+        {
+          statement.execute("LISTEN " + CHANNEL);
+          PGConnection pgConnection = connection.unwrap(PGConnection.class);
+          List<String> earlierWriters = openWriters(statement);
+          while (running)
+          {
+            if (earlierWriters != null && !anyOpen(connection, earlierWriters))
+            {
+              versions.forEach(ChangeVersion::tracking);
+              earlierWriters = null;
+            }
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+            if (notifications == null) {continue;}
+            for (PGNotification notification : notifications) {dispatch(notification.getParameter());}
+          }
+        }
+        finally
+        {
+          // The connection goes back to the pool, where it must no longer count as a listener
+          release(statement);
+        }
+      }
+      catch (SQLException e)
+      {
+        if (running) {log.warn("Listening for table changes failed; list ETags are off until it resumes", e);}
+      }
+      finally
+      {
+        versions.forEach(ChangeVersion::untracked);
+      }
+      sleepBeforeReconnect();
+    }
+  }
+
+  /* This method returns the transaction ids of this database's open writing transactions. */
+  private static List<String> openWriters(Statement statement) throws SQLException
+  {
+    List<String> xids = new ArrayList<>();
+    try (ResultSet rs = statement.executeQuery(OPEN_WRITERS_SQL))
+    {
+      while (rs.next()) {xids.add(rs.getString(1));}
+    }
+    return xids;
+  }
+
+  /* This method returns whether any of the given transactions is still open. */
+  private static boolean anyOpen(Connection connection, List<String> xids) throws SQLException
+  {
+    if (xids.isEmpty()) {return false;}
+    try (PreparedStatement query = connection.prepareStatement(STILL_OPEN_SQL))
+    {
+      query.setArray(1, connection.createArrayOf("text", xids.toArray()));
+      try (ResultSet rs = query.executeQuery())
+      {
+        rs.next();
+        return rs.getLong(1) > 0;
+      }
+    }
+  }
+
+  private static void release(Statement statement)
+  {
+    try
+    {
+      statement.execute("UNLISTEN *");
+      statement.execute("RESET application_name");
+    }
+    catch (SQLException e)
+    {
+      // A broken connection is evicted by the pool anyway
+    }
+  }
+
+  private void sleepBeforeReconnect()
+  {
+    if (!running) {return;}
+    try
+    {
+      Thread.sleep(reconnectDelayMs);
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  /* This method stops listening and returns the connection on shutdown. */
+  @PreDestroy
+  public void shutdown()
+  {
+    running = false;
+    if (thread != null) {thread.interrupt();}
+  }
+}
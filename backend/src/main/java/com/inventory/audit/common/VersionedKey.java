@@ -0,0 +1,12 @@
+package com.inventory.audit.common;
+
+/**
+ * Single-flight key for a read whose response is tagged with a {@link ChangeVersion}.
+ * The version is the in-memory {@link ChangeVersion#latest()} generation, taken after the request's ETag check.
+ * A caller can only share a query started once that generation was reached, never one that may have missed the
+ * write behind the version it was tagged with.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record VersionedKey<K>(K key, long version) {}
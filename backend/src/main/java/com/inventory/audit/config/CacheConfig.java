@@ -1,17 +1,29 @@
 package com.inventory.audit.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.inventory.audit.inventory.InventoryItemCache;
+import com.inventory.audit.inventory.InventoryItemLoader;
+import com.inventory.audit.inventory.InventoryItemMisses;
+import com.inventory.audit.inventory.InventoryItemRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Cache configuration for the application.
- * Configures Caffeine cache manager with size limits and expiration policies.
+ * Builds each Caffeine cache from its spec in application.yaml (app.cache.specs.&lt;cache name&gt;).
+ * "inventoryItems" holds items by id and SKU; "inventoryItemMisses" remembers ids and SKUs that were not found.
+ * When the "inventoryItems" spec sets refreshAfterWrite, the cache is built as an AsyncLoadingCache: an entry read
+ * after that interval is still served while it is reloaded in the background, so hot items never expire under
+ * their readers. Without it the cache is a plain cache filled by the @Cacheable methods.
  * 
  * @author Victor Tiradoegas
  * @version 1.0
@@ -21,17 +33,53 @@ import java.util.concurrent.TimeUnit;
 public class CacheConfig 
 {
 
+    /* This method returns the remembered misses, shared by the lookups and the refresh-ahead loader. */
+    @Bean
+    public InventoryItemMisses inventoryItemMisses(
+            @Value("${app.cache.specs.inventoryItemMisses:maximumSize=100000,expireAfterWrite=30s,recordStats}") String missesSpec) 
+    {
+        return new InventoryItemMisses(Caffeine.from(missesSpec).build());
+    }
+
+    /* This method configures the cache manager with one custom cache per spec. */
     @Bean
     @SuppressWarnings("null")
-    public CacheManager cacheManager() 
+    public CacheManager cacheManager(
+            InventoryItemRepository inventoryItemRepository,
+            InventoryItemMisses misses,
+            @Value("${app.cache.specs.inventoryItems:maximumSize=10000,expireAfterWrite=30m,expireAfterAccess=15m,refreshAfterWrite=5m,recordStats}") String itemsSpec,
+            @Value("${app.cache.refresh-threads:2}") int refreshThreads) 
     {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("inventoryItems");
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-            .maximumSize(10000)
-            .expireAfterWrite(30, TimeUnit.MINUTES)
-            .expireAfterAccess(15, TimeUnit.MINUTES)
-            .recordStats());
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        cacheManager.registerCustomCache(InventoryItemCache.MISSES_NAME, misses.cache());
+
+        CaffeineSpec items = CaffeineSpec.parse(itemsSpec);
+        if (sets(itemsSpec, "refreshAfterWrite")) 
+        {
+            // Background refreshes run on their own threads, so blocking JDBC stays off the common fork-join pool;
+            // first loads stay on the reading thread (see InventoryItemLoader)
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+            threadFactory.setDaemon(true);
+            Executor refreshExecutor = Executors.newFixedThreadPool(refreshThreads, threadFactory);
+            cacheManager.registerCustomCache(InventoryItemCache.NAME, Caffeine.from(items)
+                .executor(refreshExecutor)
+                .buildAsync(new InventoryItemLoader(inventoryItemRepository, misses)));
+        }
+        else 
+        {
+            cacheManager.registerCustomCache(InventoryItemCache.NAME, Caffeine.from(items).build());
+        }
         return cacheManager;
     }
-}
 
+    /* This method returns whether a spec that CaffeineSpec has parsed sets the option, splitting it into options and keys as CaffeineSpec does, since the parsed spec has no getters. */
+    private static boolean sets(String spec, String option) 
+    {
+        for (String setting : spec.split(",")) 
+        {
+            if (setting.split("=", 2)[0].trim().equals(option)) {return true;}
+        }
+        return false;
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.audit.config;
+
+import com.inventory.audit.audit.AuditChangeVersion;
+import com.inventory.audit.common.ConditionalGetInterceptor;
+import com.inventory.audit.inventory.InventoryChangeVersion;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC configuration for the application.
+ * Registers conditional GET handling for list and summary endpoints, and the binary Jackson formats
+ * (Smile and CBOR) that clients can ask for through the Accept header instead of JSON.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer 
+{
+
+    private final InventoryChangeVersion inventoryChangeVersion;
+    private final AuditChangeVersion auditChangeVersion;
+
+    public WebConfig(InventoryChangeVersion inventoryChangeVersion, AuditChangeVersion auditChangeVersion) 
+    {
+        this.inventoryChangeVersion = inventoryChangeVersion;
+        this.auditChangeVersion = auditChangeVersion;
+    }
+
+    /* This method returns the Smile converter, configured like the JSON one so both carry the same fields and date format. */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) 
+    {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    /* This method returns the CBOR converter, configured like the JSON one so both carry the same fields and date format. */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) 
+    {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    /* This method registers the ETag interceptors; single items carry their own ETags from the controller, and autocomplete carries none. */
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) 
+    {
+        registry.addInterceptor(new ConditionalGetInterceptor(inventoryChangeVersion))
+            .addPathPatterns("/api/inventory", "/api/inventory/query", "/api/inventory/location/**", 
+                "/api/inventory/search/**", "/api/inventory/summary/**")
+            // Served from per-instance in-memory indexes, which may trail the database version the tag is built from
+            .excludePathPatterns("/api/inventory/search/fuzzy");
+        registry.addInterceptor(new ConditionalGetInterceptor(auditChangeVersion))
+            .addPathPatterns("/api/audit-events/**")
+            .excludePathPatterns("/api/audit-events/*");
+    }
+}
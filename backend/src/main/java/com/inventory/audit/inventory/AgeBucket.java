@@ -0,0 +1,39 @@
+package com.inventory.audit.inventory;
+
+/**
+ * Age ranges, in whole days since the last update, used to group items in the stale-stock report.
+ * Bounds are inclusive; the last bucket is open-ended.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public enum AgeBucket 
+{
+  RECENT("0-29", 29),
+  MONTH("30-59", 59),
+  TWO_MONTHS("60-89", 89),
+  QUARTER("90-179", 179),
+  HALF_YEAR("180-364", 364),
+  YEAR("365+", Long.MAX_VALUE);
+
+  private final String label;
+  private final long upperBound;
+
+  AgeBucket(String label, long upperBound) 
+  {
+    this.label = label;
+    this.upperBound = upperBound;
+  }
+
+  public String getLabel() { return label; }
+
+  /* This method returns the bucket holding the given age in days. */
+  static AgeBucket of(long ageDays) 
+  {
+    for (AgeBucket bucket : values()) 
+    {
+      if (ageDays <= bucket.upperBound) {return bucket;}
+    }
+    return YEAR;
+  }
+}
@@ -0,0 +1,80 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.common.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque position in the inventory change feed.
+ * A sync round returns every change written by a transaction at or above {@code fromTxid}, in change
+ * sequence order, resuming after {@code afterSeq}. When a round starts, the oldest transaction still
+ * running is recorded as {@code nextTxid}: every transaction below it has finished, so the next round can
+ * start there without missing a change that committed late with a lower sequence number.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record ChangeToken(long fromTxid, Instant fromTime, long nextTxid, Instant nextTime, long afterSeq)
+{
+
+  private static final String SEPARATOR = ":";
+
+  /* This method returns the position of a full sync starting now. */
+  public static ChangeToken initial(Instant now)
+  {
+    return new ChangeToken(0, now, 0, null, 0);
+  }
+
+  /* This method reports whether the round's end watermark has been recorded yet. */
+  public boolean roundStarted()
+  {
+    return nextTime != null;
+  }
+
+  /* This method records the end watermark of the round. */
+  public ChangeToken startRound(long horizonTxid, Instant now)
+  {
+    return new ChangeToken(fromTxid, fromTime, horizonTxid, now, afterSeq);
+  }
+
+  /* This method returns the position after the given change within the same round. */
+  public ChangeToken after(long seq)
+  {
+    return new ChangeToken(fromTxid, fromTime, nextTxid, nextTime, seq);
+  }
+
+  /* This method returns the start of the round following this one. */
+  public ChangeToken nextRound()
+  {
+    return new ChangeToken(nextTxid, nextTime, 0, null, 0);
+  }
+
+  /* This method encodes the token as a URL-safe string. */
+  public String encode()
+  {
+    String raw = fromTxid + SEPARATOR + fromTime.toEpochMilli() + SEPARATOR + nextTxid + SEPARATOR
+        + (nextTime == null ? 0 : nextTime.toEpochMilli()) + SEPARATOR + afterSeq;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /* This method decodes a token produced by encode(), returning null for a blank token. */
+  public static ChangeToken decode(String token)
+  {
+    if (token == null || token.isBlank()) {return null;}
+
+    try
+    {
+      String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR);
+      if (parts.length != 5) {throw new BadRequestException("Invalid change token");}
+      long nextMillis = Long.parseLong(parts[3]);
+      return new ChangeToken(Long.parseLong(parts[0]), Instant.ofEpochMilli(Long.parseLong(parts[1])),
+          Long.parseLong(parts[2]), nextMillis == 0 ? null : Instant.ofEpochMilli(nextMillis), Long.parseLong(parts[4]));
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new BadRequestException("Invalid change token");
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.common.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Output formats of the streamed inventory exports and reports, with their content type and file extension.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public enum ExportFormat 
+{
+  CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+  NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+  private final MediaType mediaType;
+  private final String extension;
+
+  ExportFormat(MediaType mediaType, String extension) 
+  {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  public MediaType getMediaType() { return mediaType; }
+  public String getExtension() { return extension; }
+
+  /* This method parses a format request parameter, ignoring case. */
+  public static ExportFormat from(String value) 
+  {
+    try {return valueOf(value.toUpperCase(Locale.ROOT));}
+    catch (IllegalArgumentException e) {throw new BadRequestException("Format must be csv or ndjson");}
+  }
+}
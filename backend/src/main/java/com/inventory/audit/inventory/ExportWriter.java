@@ -0,0 +1,104 @@
+package com.inventory.audit.inventory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a stream of record rows as CSV or NDJSON. CSV columns are the record components in
+ * declaration order, the same names Jackson uses for NDJSON. Output is buffered and flushed every
+ * {@value #FLUSH_EVERY} rows, so a slow client blocks the writer instead of letting rows pile up in memory.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+final class ExportWriter<R extends Record> 
+{
+
+  private static final int FLUSH_EVERY = 1000;
+
+  private final ExportFormat format;
+  private final Writer writer;
+  private final ObjectWriter jsonWriter;
+  private final Method[] accessors;
+  private final String csvHeader;
+  private int unflushed;
+
+  ExportWriter(Class<R> type, ExportFormat format, ObjectMapper objectMapper, OutputStream out) 
+  {
+    RecordComponent[] components = type.getRecordComponents();
+    this.format = format;
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    // Each row is written on its own; leave flushing to this class and closing the stream to the caller
+    this.jsonWriter = objectMapper.writerFor(type)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    this.accessors = Arrays.stream(components).map(RecordComponent::getAccessor).toArray(Method[]::new);
+    this.csvHeader = Arrays.stream(components).map(RecordComponent::getName).collect(Collectors.joining(","));
+  }
+
+  /* This method writes the CSV header line; NDJSON has none. */
+  void begin() throws IOException 
+  {
+    if (format == ExportFormat.CSV) 
+    {
+      writer.write(csvHeader);
+      writer.write('\n');
+    }
+  }
+
+  /* This method writes one row, flushing to the client every FLUSH_EVERY rows. */
+  void write(R row) throws IOException 
+  {
+    if (format == ExportFormat.CSV) {writeCsv(row);}
+    else {jsonWriter.writeValue(writer, row);}
+    writer.write('\n');
+    if (++unflushed == FLUSH_EVERY) 
+    {
+      writer.flush();
+      unflushed = 0;
+    }
+  }
+
+  /* This method flushes the remaining rows. */
+  void finish() throws IOException 
+  {
+    writer.flush();
+  }
+
+  private void writeCsv(R row) throws IOException 
+  {
+    for (int i = 0; i < accessors.length; i++) 
+    {
+      if (i > 0) {writer.write(',');}
+      Object value;
+      try {value = accessors[i].invoke(row);}
+      catch (IllegalAccessException | InvocationTargetException e) {throw new IllegalStateException(e);}
+      if (value != null) {writer.write(csv(value.toString()));}
+    }
+  }
+
+  /* This method quotes a CSV field when it contains a separator, quote or line break. */
+  private static String csv(String value) 
+  {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) 
+    {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
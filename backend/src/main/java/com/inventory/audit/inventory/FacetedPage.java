@@ -0,0 +1,12 @@
+package com.inventory.audit.inventory;
+
+import java.util.List;
+
+/**
+ * Record representing a page of search results together with facet counts over all matches.
+ * The total comes from the facet aggregation, so no separate COUNT query is needed.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record FacetedPage<T>(List<T> content, int page, int size, boolean hasNext, long totalElements, InventoryFacets facets) {}
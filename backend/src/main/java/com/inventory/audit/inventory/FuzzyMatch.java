@@ -0,0 +1,10 @@
+package com.inventory.audit.inventory;
+
+/**
+ * Record representing one ranked result of a fuzzy name search.
+ * The score is the share of the query's trigrams found in the item name, between 0 and 1.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record FuzzyMatch(InventoryItemSnapshot item, double score) {}
@@ -0,0 +1,105 @@
+package com.inventory.audit.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service serving the inventory change feed used by clients that keep a local copy of the inventory.
+ * Every item row carries the change sequence and transaction id of its last write (stamped by a trigger),
+ * and deleted items leave a tombstone written inside the deleting transaction, so a sync reads only the
+ * rows changed since the client's token instead of the whole catalogue.
+ * Tombstones older than the retention period are pruned; tokens older than that restart with a full sync.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Service
+public class InventoryChangeFeedService
+{
+
+  private static final Logger log = LoggerFactory.getLogger(InventoryChangeFeedService.class);
+
+  private static final String CHANGES_SQL =
+      "SELECT id, sku, name, qty, location, updated_at, change_seq, false FROM inventory_items " +
+      "WHERE change_txid >= ?::xid8 AND change_seq > ? " +
+      "UNION ALL " +
+      "SELECT item_id, sku, NULL, NULL, NULL, deleted_at, change_seq, true FROM inventory_tombstones " +
+      "WHERE change_txid >= ?::xid8 AND change_seq > ? " +
+      "ORDER BY 7 LIMIT ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration tombstoneRetention;
+
+  public InventoryChangeFeedService(JdbcTemplate jdbcTemplate,
+      @Value("${app.change-feed.tombstone-retention-days:30}") int tombstoneRetentionDays)
+  {
+    this.jdbcTemplate = jdbcTemplate;
+    this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+  }
+
+  /* This method returns up to limit changes after the token, or the first page of a full sync for a blank token. */
+  @Transactional(readOnly = true)
+  public InventoryChanges getChanges(String token, int limit)
+  {
+    Instant now = Instant.now();
+    ChangeToken since = ChangeToken.decode(token);
+    boolean reset = since != null && since.fromTime().isBefore(now.minus(tombstoneRetention));
+    if (since == null || reset) {since = ChangeToken.initial(now);}
+    if (!since.roundStarted())
+    {
+      // Transactions below the oldest one still running have all finished, so none of them can commit later
+      Long horizon = jdbcTemplate.queryForObject(
+          "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+      since = since.startRound(horizon, now);
+    }
+
+    List<InventoryItemSnapshot> upserts = new ArrayList<>();
+    List<InventoryChanges.Deletion> deletes = new ArrayList<>();
+    long[] lastSeq = {since.afterSeq()};
+    int[] rows = {0};
+    String from = Long.toString(since.fromTxid());
+    jdbcTemplate.query(CHANGES_SQL, rs ->
+    {
+      if (++rows[0] > limit) {return;}
+      Instant at = rs.getTimestamp(6).toInstant();
+      if (rs.getBoolean(8)) {deletes.add(new InventoryChanges.Deletion(rs.getLong(1), rs.getString(2), at));}
+      else {upserts.add(new InventoryItemSnapshot(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4), rs.getString(5), at));}
+      lastSeq[0] = rs.getLong(7);
+    }, from, since.afterSeq(), from, since.afterSeq(), limit + 1);
+
+    boolean hasMore = rows[0] > limit;
+    ChangeToken next = hasMore ? since.after(lastSeq[0]) : since.nextRound();
+    return new InventoryChanges(upserts, deletes, next.encode(), hasMore, reset);
+  }
+
+  /* This method writes the tombstone of a deleted item inside the deleting transaction. */
+  @EventListener
+  public void onItemChanging(InventoryItemChangedEvent event)
+  {
+    if (event.type() != InventoryItemChangedEvent.ChangeType.DELETED) {return;}
+    InventoryItemSnapshot deleted = event.previous();
+    jdbcTemplate.update("INSERT INTO inventory_tombstones (item_id, sku) VALUES (?, ?) ON CONFLICT (item_id) DO NOTHING",
+        deleted.id(), deleted.sku());
+  }
+
+  /* This method removes tombstones older than the retention period. */
+  @Scheduled(fixedDelayString = "${app.change-feed.prune-interval-ms:3600000}",
+      initialDelayString = "${app.change-feed.prune-interval-ms:3600000}")
+  public void pruneTombstones()
+  {
+    int pruned = jdbcTemplate.update("DELETE FROM inventory_tombstones WHERE deleted_at < now() - make_interval(days => ?)",
+        (int) tombstoneRetention.toDays());
+    if (pruned > 0) {log.info("Pruned {} inventory tombstones", pruned);}
+  }
+}
@@ -0,0 +1,24 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.common.ChangeVersion;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Change version of the inventory table, used for list and summary ETags.
+ * Commits from any instance move it on through the table's change notifications; this instance's own commits also
+ * move it on as soon as they complete, so a writer's next read is never answered from before its write.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class InventoryChangeVersion extends ChangeVersion 
+{
+
+  public InventoryChangeVersion() {super("inventory_items");}
+
+  /* This method records a committed change made on this instance without waiting for its notification. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onItemChanged(InventoryItemChangedEvent event) {changed();}
+}
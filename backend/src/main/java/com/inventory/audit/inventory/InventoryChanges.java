@@ -0,0 +1,21 @@
+package com.inventory.audit.inventory;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Record representing one page of the inventory change feed.
+ * Upserts carry the current state of items created or updated since the token, and deletes the items removed since.
+ * A change may appear again in a later page; applying it twice leaves the client in the same state.
+ * When reset is true the token was too old to resume from, and the page starts a full sync instead.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record InventoryChanges(List<InventoryItemSnapshot> upserts, List<Deletion> deletes, String nextToken,
+    boolean hasMore, boolean reset)
+{
+
+  /* This record identifies a deleted item. */
+  public record Deletion(Long id, String sku, Instant deletedAt) {}
+}
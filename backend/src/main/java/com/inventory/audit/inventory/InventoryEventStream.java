@@ -0,0 +1,45 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.common.EventBroadcaster;
+import com.inventory.audit.common.EventBroadcasterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live stream of committed inventory changes for browser views that would otherwise poll.
+ * Every {@link InventoryItemChangedEvent} is published to the subscribers once its transaction commits.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class InventoryEventStream
+{
+
+  private final EventBroadcaster<InventoryItemChangedEvent> broadcaster;
+
+  public InventoryEventStream(EventBroadcasterRegistry registry)
+  {
+    this.broadcaster = registry.create("inventory");
+  }
+
+  /* This method opens a stream of the changes to every item, or only to items entering, leaving or at one location. */
+  public SseEmitter subscribe(String location)
+  {
+    if (location == null || location.isBlank()) {return broadcaster.subscribe(event -> true);}
+    return broadcaster.subscribe(event -> atLocation(event.previous(), location) || atLocation(event.current(), location));
+  }
+
+  /* This method publishes a committed change to the subscribers. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onItemChanged(InventoryItemChangedEvent event)
+  {
+    broadcaster.publish(event);
+  }
+
+  private static boolean atLocation(InventoryItemSnapshot item, String location)
+  {
+    return item != null && location.equals(item.location());
+  }
+}
@@ -0,0 +1,55 @@
+package com.inventory.audit.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service writing a full export of the inventory, optionally for one location, as CSV or NDJSON.
+ * Rows are read as snapshots through a forward-only server-side cursor, so no entity ever enters the
+ * persistence context, and are written to the output as they arrive; memory use stays flat however
+ * large the inventory is, and the export holds a single connection for its duration.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Service
+public class InventoryExportService
+{
+
+  private final InventoryItemRepository repo;
+  private final ObjectMapper objectMapper;
+
+  public InventoryExportService(InventoryItemRepository repo, ObjectMapper objectMapper)
+  {
+    this.repo = repo;
+    this.objectMapper = objectMapper;
+  }
+
+  /* This method writes every item, or every item at the location, optionally gzip-compressed. */
+  @Transactional(readOnly = true)
+  public void write(String location, ExportFormat format, boolean gzip, OutputStream out) throws IOException
+  {
+    // Sync flush makes each batch flushed by the writer reach the client instead of waiting in the deflater
+    GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024, true) : null;
+    ExportWriter<InventoryItemSnapshot> writer = new ExportWriter<>(InventoryItemSnapshot.class, format, objectMapper,
+        compressed != null ? compressed : out);
+
+    try (Stream<InventoryItemSnapshot> stream = location == null
+        ? repo.streamAllSnapshots()
+        : repo.streamSnapshotsByLocation(location))
+    {
+      writer.begin();
+      Iterator<InventoryItemSnapshot> items = stream.iterator();
+      while (items.hasNext()) {writer.write(items.next());}
+    }
+    writer.finish();
+    if (compressed != null) {compressed.finish();}
+  }
+}
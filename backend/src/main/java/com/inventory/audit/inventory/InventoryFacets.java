@@ -0,0 +1,17 @@
+package com.inventory.audit.inventory;
+
+import java.util.List;
+
+/**
+ * Record representing facet counts over a filtered set of inventory items.
+ * Contains per-location counts and quantities, per-qty-bucket counts, and the total number of matches.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record InventoryFacets(List<LocationFacet> locations, List<QtyBucketFacet> qtyBuckets, long total) 
+{
+  public record LocationFacet(String location, long count, long totalQty) {}
+
+  public record QtyBucketFacet(String bucket, long count) {}
+}
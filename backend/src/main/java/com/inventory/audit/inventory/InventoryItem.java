@@ -14,8 +14,10 @@ import java.time.Instant;
 @Table(name = "inventory_items", indexes = {
     @Index(name = "idx_sku", columnList = "sku"),
     @Index(name = "idx_location", columnList = "location"),
-    @Index(name = "idx_updated_at", columnList = "updatedAt"),
-    @Index(name = "idx_location_updated", columnList = "location,updatedAt")
+    @Index(name = "idx_updated_at_id", columnList = "updatedAt,id"),
+    @Index(name = "idx_location_updated_id", columnList = "location,updatedAt,id"),
+    @Index(name = "idx_location_qty", columnList = "location,qty"),
+    @Index(name = "idx_qty", columnList = "qty")
 })
 
 /* This class is the inventory item. */
@@ -41,6 +43,19 @@ public class InventoryItem
   @Column(nullable = false)
   private Instant updatedAt = Instant.now();
 
+  public InventoryItem() {}
+
+  /* This constructor builds a detached item, e.g. from the in-memory read model. */
+  InventoryItem(Long id, String sku, String name, Integer qty, String location, Instant updatedAt) 
+  {
+    this.id = id;
+    this.sku = sku;
+    this.name = name;
+    this.qty = qty;
+    this.location = location;
+    this.updatedAt = updatedAt;
+  }
+
   public Long getId() { return id; }
 
   public String getSku() { return sku; }
@@ -0,0 +1,142 @@
+package com.inventory.audit.inventory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.inventory.audit.common.NotFoundException;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Direct access to the Caffeine store behind the "inventoryItems" cache, for bulk operations
+ * that the @Cacheable annotations cannot express. Keys follow the same scheme as those annotations:
+ * the item id for lookups by id, and "sku:" + SKU for lookups by SKU.
+ * Writes keep the cache current key by key once they commit: only the changed item's entries are
+ * refreshed or dropped, so one write no longer empties the whole cache for every other reader.
+ * Keys that were looked up and not found are remembered in the short-lived "inventoryItemMisses" cache,
+ * so repeated probes of unknown ids or SKUs do not reach the database; creating the item clears them, and a miss
+ * found by a lookup that overlapped the creating commit is not stored (see {@link InventoryItemMisses}).
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class InventoryItemCache 
+{
+
+  public static final String NAME = "inventoryItems";
+  public static final String MISSES_NAME = "inventoryItemMisses";
+
+  private final Cache<Object, Object> cache;
+  private final InventoryItemMisses misses;
+
+  @SuppressWarnings("null")
+  public InventoryItemCache(CacheManager cacheManager, InventoryItemMisses misses) 
+  {
+    this.cache = ((CaffeineCache) cacheManager.getCache(NAME)).getNativeCache();
+    this.misses = misses;
+  }
+
+  /* This method returns the cache key used for lookups by SKU. */
+  public static String skuKey(String sku) {return "sku:" + sku;}
+
+  /* This method returns the cached items for the given keys in a single call; absent keys are left out. */
+  public Map<Object, InventoryItem> getAllPresent(Collection<?> keys) 
+  {
+    Map<Object, InventoryItem> result = new HashMap<>();
+    cache.getAllPresent(keys).forEach((key, value) -> result.put(key, (InventoryItem) value));
+    return result;
+  }
+
+  /* This method updates or drops the cached entries of a committed change's item, leaving every other entry alone. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onItemChanged(InventoryItemChangedEvent event) 
+  {
+    InventoryItemSnapshot previous = event.previous();
+    InventoryItemSnapshot current = event.current();
+    // The old SKU no longer resolves to this item once it is renamed or deleted
+    if (previous != null && (current == null || !previous.sku().equals(current.sku()))) 
+    {
+      cache.invalidate(skuKey(previous.sku()));
+    }
+
+    // A key remembered as missing may now resolve to this item
+    if (current != null) {misses.forget(List.of(current.id(), skuKey(current.sku())));}
+
+    if (current == null) 
+    {
+      cache.invalidate(previous.id());
+    }
+    else if (previous != null) 
+    {
+      // Refresh only entries that are cached already, so writes to cold items do not push out hot ones
+      InventoryItem item = new InventoryItem(current.id(), current.sku(), current.name(), current.qty(), 
+          current.location(), current.updatedAt());
+      ConcurrentMap<Object, Object> entries = cache.asMap();
+      entries.computeIfPresent(item.getId(), (key, cached) -> newer(cached, item));
+      entries.computeIfPresent(skuKey(item.getSku()), (key, cached) -> newer(cached, item));
+    }
+  }
+
+  /* This method keeps whichever state was written last, since listeners of concurrent commits may run out of order. */
+  private static Object newer(Object cached, InventoryItem item) 
+  {
+    return cached instanceof InventoryItem other && other.getUpdatedAt().isAfter(item.getUpdatedAt()) ? cached : item;
+  }
+
+  /* This method reports whether the key was recently looked up and not found. */
+  public boolean isKnownMissing(Object key) 
+  {
+    return misses.contains(key);
+  }
+
+  /* This method returns which of the keys were recently looked up and not found. */
+  public Set<Object> knownMissing(Collection<?> keys) 
+  {
+    return misses.containing(keys);
+  }
+
+  /* This method returns the stamp to take before looking up keys that may be remembered as missing. */
+  public long missStamp() {return misses.stamp();}
+
+  /* This method remembers keys that a lookup started at the stamp did not find, unless an item was created since. */
+  public void rememberMissing(Collection<?> keys, long stamp) 
+  {
+    misses.remember(keys, stamp);
+  }
+
+  /* This method runs the loader and remembers the key as missing if the loader finds nothing. */
+  public InventoryItem loadRememberingMiss(Object key, Supplier<InventoryItem> loader) 
+  {
+    long stamp = misses.stamp();
+    try 
+    {
+      return loader.get();
+    }
+    catch (NotFoundException e) 
+    {
+      misses.remember(List.of(key), stamp);
+      throw e;
+    }
+  }
+
+  /* This method caches each item under both its id and its SKU key. */
+  public void putAll(Collection<InventoryItem> items) 
+  {
+    Map<Object, Object> entries = new HashMap<>(items.size() * 2);
+    for (InventoryItem item : items) 
+    {
+      entries.put(item.getId(), item);
+      entries.put(skuKey(item.getSku()), item);
+    }
+    cache.putAll(entries);
+  }
+}
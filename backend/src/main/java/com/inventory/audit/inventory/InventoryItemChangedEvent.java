@@ -0,0 +1,33 @@
+package com.inventory.audit.inventory;
+
+/**
+ * Application event published by {@link InventoryItemService} for every inventory write.
+ * Carries the state before and after the change; previous is null for creates and current is null for deletes.
+ * userId names the user who made the change, for listeners that record follow-up audit events.
+ * Listeners that maintain in-memory views should use {@code @TransactionalEventListener(fallbackExecution = true)}
+ * so they only observe committed changes.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record InventoryItemChangedEvent(ChangeType type, InventoryItemSnapshot previous, InventoryItemSnapshot current, 
+    String userId) 
+{
+
+  public enum ChangeType { CREATED, UPDATED, DELETED }
+
+  public static InventoryItemChangedEvent created(InventoryItemSnapshot current, String userId) 
+  {
+    return new InventoryItemChangedEvent(ChangeType.CREATED, null, current, userId);
+  }
+
+  public static InventoryItemChangedEvent updated(InventoryItemSnapshot previous, InventoryItemSnapshot current, String userId) 
+  {
+    return new InventoryItemChangedEvent(ChangeType.UPDATED, previous, current, userId);
+  }
+
+  public static InventoryItemChangedEvent deleted(InventoryItemSnapshot previous, String userId) 
+  {
+    return new InventoryItemChangedEvent(ChangeType.DELETED, previous, null, userId);
+  }
+}
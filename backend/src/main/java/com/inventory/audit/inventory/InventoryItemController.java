@@ -1,18 +1,30 @@
 package com.inventory.audit.inventory;
 
 import com.inventory.audit.common.BadRequestException;
+import com.inventory.audit.common.CountMode;
+import com.inventory.audit.common.FieldSelection;
+import com.inventory.audit.common.KeysetCursor;
+import com.inventory.audit.common.PageResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -34,8 +46,35 @@ public class InventoryItemController
         "id", "sku", "name", "qty", "location", "updatedAt"
     ).collect(Collectors.toSet());
     
+    private static final Set<String> VALID_FIELDS = Stream.of(
+        "id", "sku", "name", "qty", "location", "updatedAt"
+    ).collect(Collectors.toSet());
+    
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private InventoryItemService service;
+
+    @Autowired
+    private LocationSummaryService locationSummaryService;
+
+    @Autowired
+    private StaleStockReportService staleStockReportService;
+
+    @Autowired
+    private InventoryExportService exportService;
+
+    @Autowired
+    private LowStockService lowStockService;
+    
+    @Autowired
+    private InventoryChangeFeedService changeFeedService;
+    
+    @Autowired
+    private InventoryEventStream eventStream;
+    
+    @Autowired
+    private InventoryTimelineService timelineService;
     
     /* This method validates the pagination parameters. */
     private void validatePaginationParams(int page, int size) 
@@ -54,6 +93,46 @@ public class InventoryItemController
         }
     }
     
+    /* This method validates the parameters for cursor pagination, which always orders by updatedAt then id. */
+    private void validateCursorParams(int size, String sortBy) 
+    {
+        validatePaginationParams(0, size);
+        if (!"updatedAt".equals(sortBy)) {throw new BadRequestException("Cursor pagination only supports sortBy=updatedAt");}
+    }
+    
+    /* This method returns the (updatedAt, id) order that search pages share with cursor mode, so page order is stable. */
+    private static Sort searchSort(String sortDir) 
+    {
+        return Sort.by(sortDir.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC, "updatedAt", "id");
+    }
+    
+    /* This method returns the order of offset pages: the requested field, then id, so rows with equal values keep their page. */
+    private static Sort offsetSort(String sortBy, String sortDir) 
+    {
+        Sort.Direction direction = sortDir.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+    
+    /* This method returns the items matching the filter with only the requested fields. */
+    private ResponseEntity<?> projectFields(InventoryItemFilter filter, String fields, Pageable pageable, String count) 
+    {
+        FieldSelection selection = FieldSelection.parse(fields, VALID_FIELDS);
+        CountMode countMode = CountMode.from(count);
+        if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.queryFieldsSlice(filter, selection, pageable, countMode));}
+        return ResponseEntity.ok(PageResponse.of(service.queryFields(filter, selection, pageable)));
+    }
+    
+    /**
+     * Returns the weak ETag of an item, which changes whenever the item is updated; a matching If-None-Match gets 304.
+     * The tag is weak because Tomcat's response compression skips any response carrying a strong ETag, since the
+     * compressed bytes would no longer match it. A weak tag keeps gzip on, and If-None-Match compares tags weakly anyway.
+     */
+    private static String etag(InventoryItem item) 
+    {
+        return "W/\"" + item.getId() + "-" + ChronoUnit.MICROS.between(Instant.EPOCH, item.getUpdatedAt()) + "\"";
+    }
+    
     /* This method gets the current authenticated username. */
     private String getCurrentUsername() 
     {
@@ -65,77 +144,258 @@ public class InventoryItemController
         return null;
     }
     
-    /* This method returns all the inventory items. */
+    /* This method returns all the inventory items, using cursor pagination when "after" is present. */
     @GetMapping
-    public ResponseEntity<Page<InventoryItem>> getAllItems(
+    public ResponseEntity<?> getAllItems(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
             @RequestParam(defaultValue = "updatedAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) 
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) 
     {
+        if (after != null) 
+        {
+            if (fields != null) {throw new BadRequestException("Fields cannot be combined with cursor pagination");}
+            validateCursorParams(size, sortBy);
+            return ResponseEntity.ok(service.listAfter(KeysetCursor.decode(after), size, sortDir.equalsIgnoreCase("ASC")));
+        }
+        
         validatePaginationParams(page, size);
         validateSortField(sortBy);
         
-        Sort sort = sortDir.equalsIgnoreCase("ASC") 
-            ? Sort.by(sortBy).ascending() 
-            : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<InventoryItem> items = service.list(pageable);
-        return ResponseEntity.ok(items);
+        Pageable pageable = PageRequest.of(page, size, offsetSort(sortBy, sortDir));
+        if (fields != null) {return projectFields(new InventoryItemFilter(null, null, null, null, null, null, null), fields, pageable, count);}
+        CountMode countMode = CountMode.from(count);
+        if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.listSlice(pageable, countMode));}
+        Page<InventoryItemSnapshot> items = service.list(pageable);
+        return ResponseEntity.ok(PageResponse.of(items));
     }
     
-    /* This method returns the inventory items by location. */
+    /* This method returns the inventory items by location, using cursor pagination when "after" is present. */
     @GetMapping("/location/{location}")
-    public ResponseEntity<Page<InventoryItem>> getItemsByLocation(
+    public ResponseEntity<?> getItemsByLocation(
             @PathVariable String location,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
             @RequestParam(defaultValue = "updatedAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) 
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(required = false) String fields) 
     {
+        if (after != null) 
+        {
+            if (fields != null) {throw new BadRequestException("Fields cannot be combined with cursor pagination");}
+            validateCursorParams(size, sortBy);
+            return ResponseEntity.ok(service.findByLocationAfter(location, KeysetCursor.decode(after), size, sortDir.equalsIgnoreCase("ASC")));
+        }
+        
         validatePaginationParams(page, size);
         validateSortField(sortBy);
         
-        Sort sort = sortDir.equalsIgnoreCase("ASC") 
-            ? Sort.by(sortBy).ascending() 
-            : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<InventoryItem> items = service.findByLocation(location, pageable);
-        return ResponseEntity.ok(items);
+        Pageable pageable = PageRequest.of(page, size, offsetSort(sortBy, sortDir));
+        if (fields != null) {return projectFields(new InventoryItemFilter(location, null, null, null, null, null, null), fields, pageable, count);}
+        CountMode countMode = CountMode.from(count);
+        if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.findByLocationSlice(location, pageable, countMode));}
+        Page<InventoryItemSnapshot> items = service.findByLocation(location, pageable);
+        return ResponseEntity.ok(PageResponse.of(items));
     }
     
-    /* This method returns the inventory items by SKU. */
+    /* This method returns the inventory items by SKU, using cursor pagination when "after" is present. */
     @GetMapping("/search/sku")
-    public ResponseEntity<Page<InventoryItem>> searchBySku(
+    public ResponseEntity<?> searchBySku(
             @RequestParam String pattern,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) 
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count) 
     {
+        if (after != null) 
+        {
+            validatePaginationParams(0, size);
+            return ResponseEntity.ok(service.searchBySkuAfter(pattern, KeysetCursor.decode(after), size, sortDir.equalsIgnoreCase("ASC")));
+        }
+        
         validatePaginationParams(page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<InventoryItem> items = service.searchBySku(pattern, pageable);
-        return ResponseEntity.ok(items);
+        Pageable pageable = PageRequest.of(page, size, searchSort(sortDir));
+        CountMode countMode = CountMode.from(count);
+        if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.searchBySkuSlice(pattern, pageable, countMode));}
+        Page<InventoryItemSnapshot> items = service.searchBySku(pattern, pageable);
+        return ResponseEntity.ok(PageResponse.of(items));
     }
     
-    /* This method returns the inventory items by name. */
+    /* This method returns the inventory items by name, using cursor pagination when "after" is present. */
     @GetMapping("/search/name")
-    public ResponseEntity<Page<InventoryItem>> searchByName(
+    public ResponseEntity<?> searchByName(
             @RequestParam String pattern,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) 
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count) 
+    {
+        if (after != null) 
+        {
+            validatePaginationParams(0, size);
+            return ResponseEntity.ok(service.searchByNameAfter(pattern, KeysetCursor.decode(after), size, sortDir.equalsIgnoreCase("ASC")));
+        }
+        
+        validatePaginationParams(page, size);
+        Pageable pageable = PageRequest.of(page, size, searchSort(sortDir));
+        CountMode countMode = CountMode.from(count);
+        if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.searchByNameSlice(pattern, pageable, countMode));}
+        Page<InventoryItemSnapshot> items = service.searchByName(pattern, pageable);
+        return ResponseEntity.ok(PageResponse.of(items));
+    }
+    
+    /* This method returns the inventory items matching any combination of filters, optionally with facet counts. */
+    @GetMapping("/query")
+    public ResponseEntity<?> queryItems(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String sku,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer minQty,
+            @RequestParam(required = false) Integer maxQty,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "updatedAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "exact") String count,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String fields) 
     {
+        InventoryItemFilter filter = new InventoryItemFilter(location, sku, name, minQty, maxQty, updatedFrom, updatedTo);
+        if (facets && fields != null) {throw new BadRequestException("Fields cannot be combined with facets");}
+        if (after != null) 
+        {
+            if (facets || fields != null) {throw new BadRequestException("Facets and fields cannot be combined with cursor pagination");}
+            validateCursorParams(size, sortBy);
+            return ResponseEntity.ok(service.queryAfter(filter, KeysetCursor.decode(after), size, sortDir.equalsIgnoreCase("ASC")));
+        }
+        
         validatePaginationParams(page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<InventoryItem> items = service.searchByName(pattern, pageable);
-        return ResponseEntity.ok(items);
+        validateSortField(sortBy);
+        
+        Pageable pageable = PageRequest.of(page, size, offsetSort(sortBy, sortDir));
+        if (facets) {return ResponseEntity.ok(service.queryWithFacets(filter, pageable));}
+        if (fields != null) {return projectFields(filter, fields, pageable, count);}
+        CountMode countMode = CountMode.from(count);
+        if (countMode != CountMode.EXACT) {return ResponseEntity.ok(service.querySlice(filter, pageable, countMode));}
+        Page<InventoryItemSnapshot> items = service.query(filter, pageable);
+        return ResponseEntity.ok(PageResponse.of(items));
+    }
+    
+    /* This method returns the inventory items whose names best match the query, tolerating typos. */
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<FuzzyMatch>> fuzzySearchByName(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "20") int limit) 
+    {
+        if (limit <= 0 || limit > 100) {throw new BadRequestException("Limit must be between 1 and 100");}
+        return ResponseEntity.ok(service.fuzzySearchByName(query, limit));
+    }
+    
+    /* This method returns SKU suggestions for type-ahead search. */
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> autocompleteSku(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) 
+    {
+        if (limit <= 0 || limit > 50) {throw new BadRequestException("Limit must be between 1 and 50");}
+        return ResponseEntity.ok(service.autocompleteSku(prefix, limit));
+    }
+    
+    /* This method returns the items created, updated or deleted since the sync token. */
+    @GetMapping("/changes")
+    public ResponseEntity<InventoryChanges> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) 
+    {
+        if (limit <= 0 || limit > 5000) {throw new BadRequestException("Limit must be between 1 and 5000");}
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(changeFeedService.getChanges(since, limit));
+    }
+    
+    /* This method streams committed inventory changes, optionally for one location, as Server-Sent Events. */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) String location) 
+    {
+        return eventStream.subscribe(location);
     }
     
     /* This method returns the location summary. */
     @GetMapping("/summary/location")
-    public ResponseEntity<List<Object[]>> getLocationSummary() 
+    public ResponseEntity<List<LocationSummary>> getLocationSummary() 
+    {
+        return ResponseEntity.ok(locationSummaryService.getSummary());
+    }
+    
+    /* This method returns the items below their reorder threshold, largest shortfall first. */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<LowStockItem>> getLowStock(
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "100") int limit) 
+    {
+        if (limit <= 0 || limit > 1000) {throw new BadRequestException("Limit must be between 1 and 1000");}
+        return ResponseEntity.ok(lowStockService.getLowStock(location, limit));
+    }
+    
+    /* This method sets the reorder threshold of the location. */
+    @PutMapping("/thresholds/location/{location}")
+    public ResponseEntity<Void> setLocationThreshold(
+            @PathVariable String location,
+            @Valid @RequestBody ReorderThresholdRequest request) 
     {
-        List<Object[]> summary = service.getLocationSummary();
-        return ResponseEntity.ok(summary);
+        lowStockService.setLocationThreshold(location, request.getThreshold(), getCurrentUsername());
+        return ResponseEntity.noContent().build();
+    }
+    
+    /* This method removes the reorder threshold of the location. */
+    @DeleteMapping("/thresholds/location/{location}")
+    public ResponseEntity<Void> deleteLocationThreshold(@PathVariable String location) 
+    {
+        lowStockService.setLocationThreshold(location, null, getCurrentUsername());
+        return ResponseEntity.noContent().build();
+    }
+    
+    /* This method streams every inventory item, or every item at one location, as CSV or NDJSON. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) 
+    {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        
+        String fileName = "inventory." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exportService.write(location, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+    
+    /* This method streams the items not updated for the given number of days as CSV or NDJSON. */
+    @GetMapping("/reports/stale")
+    public ResponseEntity<StreamingResponseBody> getStaleStockReport(
+            @RequestParam(defaultValue = "90") int olderThanDays,
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "csv") String format) 
+    {
+        if (olderThanDays < 0) {throw new BadRequestException("olderThanDays must be non-negative");}
+        ExportFormat reportFormat = ExportFormat.from(format);
+        
+        String fileName = "stale-stock-" + olderThanDays + "d." + reportFormat.getExtension();
+        StreamingResponseBody body = out -> staleStockReportService.write(olderThanDays, location, reportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(reportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
     }
     
     /* This method returns the inventory item by id. */
@@ -143,7 +403,18 @@ public class InventoryItemController
     public ResponseEntity<InventoryItem> getItemById(@PathVariable @NonNull Long id) 
     {
         InventoryItem item = service.get(id);
-        return ResponseEntity.ok(item);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).eTag(etag(item)).body(item);
+    }
+    
+    /* This method returns the inventory item by id with a keyset page of its audit history, newest first. */
+    @GetMapping("/{id}/timeline")
+    public ResponseEntity<ItemTimeline> getTimeline(
+            @PathVariable @NonNull Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) 
+    {
+        if (size <= 0 || size > 200) {throw new BadRequestException("Size must be between 1 and 200");}
+        return ResponseEntity.ok(timelineService.getTimeline(id, KeysetCursor.decode(after), size));
     }
     
     /* This method returns the inventory item by SKU. */
@@ -151,7 +422,7 @@ public class InventoryItemController
     public ResponseEntity<InventoryItem> getItemBySku(@PathVariable String sku) 
     {
         InventoryItem item = service.getBySku(sku);
-        return ResponseEntity.ok(item);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).eTag(etag(item)).body(item);
     }
     
     /* This method creates a new inventory item. */
@@ -163,6 +434,17 @@ public class InventoryItemController
         return ResponseEntity.status(HttpStatus.CREATED).body(item);
     }
     
+    /* This method resolves many inventory items by id and SKU in one request. */
+    @PostMapping("/lookup")
+    public ResponseEntity<InventoryLookupResponse> lookup(@Valid @RequestBody InventoryLookupRequest request) 
+    {
+        if (request.getIds().size() + request.getSkus().size() > 1000) 
+        {
+            throw new BadRequestException("A lookup cannot exceed 1000 ids and SKUs in total");
+        }
+        return ResponseEntity.ok(service.lookup(request.getIds(), request.getSkus()));
+    }
+    
     /* This method creates a new inventory item batch. */
     @PostMapping("/batch")
     public ResponseEntity<List<InventoryItem>> createBatch(
@@ -182,6 +464,24 @@ public class InventoryItemController
         return ResponseEntity.ok(item);
     }
     
+    /* This method sets the reorder threshold of the inventory item by id. */
+    @PutMapping("/{id}/threshold")
+    public ResponseEntity<Void> setItemThreshold(
+            @PathVariable @NonNull Long id,
+            @Valid @RequestBody ReorderThresholdRequest request) 
+    {
+        lowStockService.setItemThreshold(id, request.getThreshold(), getCurrentUsername());
+        return ResponseEntity.noContent().build();
+    }
+    
+    /* This method removes the reorder threshold of the inventory item by id. */
+    @DeleteMapping("/{id}/threshold")
+    public ResponseEntity<Void> deleteItemThreshold(@PathVariable @NonNull Long id) 
+    {
+        lowStockService.setItemThreshold(id, null, getCurrentUsername());
+        return ResponseEntity.noContent().build();
+    }
+    
     /* This method deletes the inventory item by id. */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable @NonNull Long id) 
@@ -0,0 +1,70 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.common.BadRequestException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Combined filter criteria for the unified inventory query endpoint.
+ * Every field is optional; set fields are combined with AND.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record InventoryItemFilter(
+    String location,
+    String skuPattern,
+    String namePattern,
+    Integer minQty,
+    Integer maxQty,
+    Instant updatedFrom,
+    Instant updatedTo) 
+{
+
+  /* This method validates the ranges in the filter. */
+  public InventoryItemFilter 
+  {
+    if (minQty != null && maxQty != null && minQty > maxQty) {throw new BadRequestException("minQty cannot be greater than maxQty");}
+    if (updatedFrom != null && updatedTo != null && updatedFrom.isAfter(updatedTo)) 
+    {
+      throw new BadRequestException("updatedFrom cannot be after updatedTo");
+    }
+  }
+
+  /* This method converts the filter into a JPA specification. */
+  public Specification<InventoryItem> toSpecification() 
+  {
+    List<Specification<InventoryItem>> specs = new ArrayList<>();
+    if (hasText(location)) {specs.add(InventoryItemSpecifications.hasLocation(location));}
+    if (hasText(skuPattern)) {specs.add(InventoryItemSpecifications.skuContains(skuPattern));}
+    if (hasText(namePattern)) {specs.add(InventoryItemSpecifications.nameContains(namePattern));}
+    if (minQty != null) {specs.add(InventoryItemSpecifications.qtyAtLeast(minQty));}
+    if (maxQty != null) {specs.add(InventoryItemSpecifications.qtyAtMost(maxQty));}
+    if (updatedFrom != null) {specs.add(InventoryItemSpecifications.updatedAtOrAfter(updatedFrom));}
+    if (updatedTo != null) {specs.add(InventoryItemSpecifications.updatedBefore(updatedTo));}
+    return Specification.allOf(specs);
+  }
+
+  /**
+   * Builds the equivalent SQL WHERE clause (including the WHERE keyword, or empty) for planner estimates.
+   * Bind values are appended to args in placeholder order.
+   */
+  public String toSqlWhere(List<Object> args) 
+  {
+    List<String> clauses = new ArrayList<>();
+    if (hasText(location)) {clauses.add("location = ?"); args.add(location);}
+    if (hasText(skuPattern)) {clauses.add("lower(sku) LIKE ? ESCAPE '\\'"); args.add(InventoryItemSpecifications.containsPattern(skuPattern));}
+    if (hasText(namePattern)) {clauses.add("lower(name) LIKE ? ESCAPE '\\'"); args.add(InventoryItemSpecifications.containsPattern(namePattern));}
+    if (minQty != null) {clauses.add("qty >= ?"); args.add(minQty);}
+    if (maxQty != null) {clauses.add("qty <= ?"); args.add(maxQty);}
+    if (updatedFrom != null) {clauses.add("updated_at >= ?"); args.add(Timestamp.from(updatedFrom));}
+    if (updatedTo != null) {clauses.add("updated_at < ?"); args.add(Timestamp.from(updatedTo));}
+    return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+  }
+
+  private static boolean hasText(String value) {return value != null && !value.isBlank();}
+}
@@ -0,0 +1,65 @@
+package com.inventory.audit.inventory;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads "inventoryItems" cache entries when the cache runs in refresh-ahead mode.
+ * Keys follow the cache's scheme: the item id, or "sku:" + SKU. A key that resolves to nothing loads as null,
+ * which drops the entry on refresh (the item was deleted) and is remembered in the misses cache, so the
+ * caller's own lookup that follows is answered without a second query.
+ * First loads run on the reading thread, as a plain cache miss would; only background refreshes use the cache's
+ * refresh executor, so its size bounds refresh work and not the number of concurrent cold lookups.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class InventoryItemLoader implements CacheLoader<Object, Object> 
+{
+
+  private static final String SKU_PREFIX = InventoryItemCache.skuKey("");
+
+  private final InventoryItemRepository repo;
+  private final InventoryItemMisses misses;
+
+  public InventoryItemLoader(InventoryItemRepository repo, InventoryItemMisses misses) 
+  {
+    this.repo = repo;
+    this.misses = misses;
+  }
+
+  /* This method loads a missing entry on the caller's thread instead of handing it to the refresh executor. */
+  @Override
+  public CompletableFuture<Object> asyncLoad(Object key, Executor executor) 
+  {
+    try 
+    {
+      return CompletableFuture.completedFuture(load(key));
+    }
+    catch (RuntimeException e) 
+    {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @Override
+  public Object load(Object key) 
+  {
+    long stamp = misses.stamp();
+    if (misses.contains(key)) {return null;}
+
+    Optional<InventoryItem> item = key instanceof Long id
+        ? repo.findById(id)
+        : repo.findBySku(((String) key).substring(SKU_PREFIX.length()));
+    if (item.isEmpty()) 
+    {
+      misses.remember(List.of(key), stamp);
+      return null;
+    }
+    return item.get();
+  }
+}
@@ -0,0 +1,58 @@
+package com.inventory.audit.inventory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids and SKUs recently looked up and not found, held in the short-lived "inventoryItemMisses" cache.
+ * A lookup takes a {@link #stamp()} before it queries and passes it to {@link #remember}, which keeps the miss only
+ * if no committed change cleared misses in between. Otherwise a lookup that missed just before an item was created
+ * could store its miss after the creating commit had cleared the key, and the new item would read as missing until
+ * the entry expired.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class InventoryItemMisses 
+{
+
+  private final Cache<Object, Object> cache;
+  private final AtomicLong changes = new AtomicLong();
+
+  public InventoryItemMisses(Cache<Object, Object> cache) {this.cache = cache;}
+
+  /* This method returns the underlying cache, for registration with the cache manager. */
+  public Cache<Object, Object> cache() {return cache;}
+
+  /* This method returns a stamp to take before a lookup whose misses will be remembered. */
+  public long stamp() {return changes.get();}
+
+  /* This method reports whether the key was recently looked up and not found. */
+  public boolean contains(Object key) {return cache.getIfPresent(key) != null;}
+
+  /* This method returns which of the keys were recently looked up and not found. */
+  public Set<Object> containing(Collection<?> keys) {return cache.getAllPresent(keys).keySet();}
+
+  /* This method remembers keys found missing by a lookup that started at the stamp, unless misses were cleared since. */
+  public void remember(Collection<?> keys, long stamp) 
+  {
+    Map<Object, Object> entries = new HashMap<>(keys.size() * 2);
+    keys.forEach(key -> entries.put(key, Boolean.TRUE));
+    cache.putAll(entries);
+    // Checked after the put: a clear that comes later removes the entries itself
+    if (changes.get() != stamp) {cache.invalidateAll(keys);}
+  }
+
+  /* This method clears keys that a committed change may have made resolvable. */
+  public void forget(Collection<?> keys) 
+  {
+    // Counted before clearing, so a lookup that stores its miss after this sees the change and drops it again
+    changes.incrementAndGet();
+    cache.invalidateAll(keys);
+  }
+}
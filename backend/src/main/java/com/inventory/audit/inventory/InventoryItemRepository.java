@@ -2,10 +2,19 @@ package com.inventory.audit.inventory;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for inventory items.
@@ -14,21 +23,95 @@ import java.util.Optional;
  * @author Victor Tiradoegas
  * @version 1.0
  */
-public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> 
+public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long>, JpaSpecificationExecutor<InventoryItem>, 
+    InventoryItemRepositoryCustom 
 {
   Optional<InventoryItem> findBySku(String sku);
+  List<InventoryItem> findBySkuIn(Collection<String> skus);
   boolean existsBySku(String sku);
   
-  // Paginated queries
-  Page<InventoryItem> findByLocation(String location, Pageable pageable);
-  Page<InventoryItem> findBySkuContainingIgnoreCase(String skuPattern, Pageable pageable);
-  Page<InventoryItem> findByNameContainingIgnoreCase(String namePattern, Pageable pageable);
+  // Paginated read queries project straight into snapshots, so no entities are hydrated or tracked
+  @Query(value = "SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i",
+      countQuery = "SELECT COUNT(i) FROM InventoryItem i")
+  Page<InventoryItemSnapshot> findAllSnapshots(Pageable pageable);
   
-  // Optimized count query
-  @Query("SELECT COUNT(i) FROM InventoryItem i WHERE i.location = :location")
-  long countByLocation(@Param("location") String location);
+  @Query(value = "SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i WHERE i.location = :location",
+      countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE i.location = :location")
+  Page<InventoryItemSnapshot> findSnapshotsByLocation(@Param("location") String location, Pageable pageable);
   
-  // Location summary projection
-  @Query("SELECT i.location as location, COUNT(i) as count, SUM(i.qty) as totalQty FROM InventoryItem i GROUP BY i.location")
-  java.util.List<Object[]> getLocationSummary();
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i WHERE i.id IN :ids")
+  List<InventoryItemSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+  
+  // Count-free slice queries
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i")
+  Slice<InventoryItemSnapshot> findSliceBy(Pageable pageable);
+  
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i WHERE i.location = :location")
+  Slice<InventoryItemSnapshot> findSliceByLocation(@Param("location") String location, Pageable pageable);
+  
+  // Substring search: lower(column) LIKE matches the pg_trgm GIN expression indexes (see V6 migration).
+  // The pattern must already be lower-cased, escaped and wrapped in % wildcards.
+  @Query(value = "SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i WHERE lower(i.sku) LIKE :pattern ESCAPE '\\'",
+      countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE lower(i.sku) LIKE :pattern ESCAPE '\\'")
+  Page<InventoryItemSnapshot> searchBySku(@Param("pattern") String pattern, Pageable pageable);
+  
+  @Query(value = "SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i WHERE lower(i.name) LIKE :pattern ESCAPE '\\'",
+      countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE lower(i.name) LIKE :pattern ESCAPE '\\'")
+  Page<InventoryItemSnapshot> searchByName(@Param("pattern") String pattern, Pageable pageable);
+  
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i WHERE lower(i.sku) LIKE :pattern ESCAPE '\\'")
+  Slice<InventoryItemSnapshot> searchSliceBySku(@Param("pattern") String pattern, Pageable pageable);
+  
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i WHERE lower(i.name) LIKE :pattern ESCAPE '\\'")
+  Slice<InventoryItemSnapshot> searchSliceByName(@Param("pattern") String pattern, Pageable pageable);
+  
+  // SKU prefix lookup used when the in-memory autocomplete index is unavailable; ordered like the index
+  // (case-insensitive, then case-sensitive, by code point) so suggestions keep their order when it turns off
+  @Query(value = "SELECT sku FROM inventory_items WHERE lower(sku) LIKE :prefix ESCAPE '\\' " +
+      "ORDER BY lower(sku) COLLATE \"C\", sku COLLATE \"C\" LIMIT :limit", nativeQuery = true)
+  List<String> findSkusByPrefix(@Param("prefix") String prefix, @Param("limit") int limit);
+  
+  // Streams every SKU with a server-side cursor; must be consumed inside a transaction
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT i.sku FROM InventoryItem i")
+  Stream<String> streamAllSkus();
+  
+  // Streams every item as an immutable snapshot for rebuilding in-memory indexes; must be consumed inside a transaction
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) FROM InventoryItem i")
+  Stream<InventoryItemSnapshot> streamAllSnapshots();
+  
+  // Streams every item at one location as a snapshot; must be consumed inside a transaction
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) " +
+      "FROM InventoryItem i WHERE i.location = :location")
+  Stream<InventoryItemSnapshot> streamSnapshotsByLocation(@Param("location") String location);
+  
+  // Streams items last updated before the cutoff, oldest first, along idx_updated_at_id; must be consumed inside a transaction
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) " +
+      "FROM InventoryItem i WHERE i.updatedAt < :cutoff ORDER BY i.updatedAt, i.id")
+  Stream<InventoryItemSnapshot> streamUpdatedBefore(@Param("cutoff") Instant cutoff);
+  
+  // Same as streamUpdatedBefore for one location, along idx_location_updated_id
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT new com.inventory.audit.inventory.InventoryItemSnapshot(i.id, i.sku, i.name, i.qty, i.location, i.updatedAt) " +
+      "FROM InventoryItem i WHERE i.location = :location AND i.updatedAt < :cutoff ORDER BY i.updatedAt, i.id")
+  Stream<InventoryItemSnapshot> streamUpdatedBeforeByLocation(@Param("location") String location, @Param("cutoff") Instant cutoff);
+
 }
\ No newline at end of file
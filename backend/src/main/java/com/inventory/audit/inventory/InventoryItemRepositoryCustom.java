@@ -0,0 +1,20 @@
+package com.inventory.audit.inventory;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for inventory queries that Spring Data cannot derive.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public interface InventoryItemRepositoryCustom 
+{
+  /* This method returns a page of the items matching the filter plus location and qty-bucket facets over all of them, in one statement. */
+  FacetedPage<InventoryItem> findWithFacets(InventoryItemFilter filter, Pageable pageable);
+
+  /* This method returns the items whose names contain at least the threshold share of the query's trigrams, within one stretch of the name, ranked as NameFuzzyIndex ranks them. */
+  List<FuzzyMatch> findByNameCoverage(String query, double threshold, int limit);
+}
@@ -0,0 +1,146 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.common.BadRequestException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link InventoryItemRepositoryCustom}.
+ * The page and the facets are fetched by one statement: the page rows and a single GROUP BY (location, qty bucket)
+ * over the filtered rows are combined with UNION ALL and told apart by a kind column. Location and bucket totals
+ * are then rolled up from the groups in memory.
+ * Fuzzy name matches are ranked by the share of the query's trigrams found in the name, like {@link NameFuzzyIndex}.
+ * The trigram GIN index narrows candidates with pg_trgm's word similarity, the best share of the query's trigrams
+ * found in one stretch of the name, held to the configured threshold; the share over the whole name is then computed
+ * per candidate. A stretch never holds more of the query than the whole name, so the fallback may leave out a name
+ * whose matching trigrams are spread apart, but it never scans every name sharing a single trigram with the query.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class InventoryItemRepositoryImpl implements InventoryItemRepositoryCustom
+{
+
+  private static final int PAGE_ROW = 0;
+
+  // Page rows come first, in page order; pos is their position within the page
+  private static final String PAGE_WITH_FACETS_SQL =
+      "SELECT * FROM (" +
+      "(SELECT " + PAGE_ROW + " AS kind, row_number() OVER (%2$s) AS pos, id, sku, name, qty, location, updated_at, " +
+      "NULL::int AS bucket, NULL::bigint AS matches, NULL::bigint AS total_qty " +
+      "FROM inventory_items%1$s %2$s LIMIT ? OFFSET ?) " +
+      "UNION ALL " +
+      "(SELECT 1, 0, NULL, NULL, NULL, NULL, location, NULL, " + QtyBucket.sqlCaseExpression() + ", COUNT(*), COALESCE(SUM(qty), 0) " +
+      "FROM inventory_items%1$s GROUP BY 7, 9)" +
+      ") rows ORDER BY kind, pos";
+
+  // shared counts the query trigrams in the name; scores are float8 so ties fall to id exactly as in the index
+  private static final String NAME_COVERAGE_SQL =
+      "SELECT id, sku, name, qty, location, updated_at, shared::float8 / q AS coverage FROM (" +
+      "SELECT i.*, cardinality(t.trigrams) AS q, cardinality(show_trgm(i.name)) AS n, " +
+      "(SELECT count(*) FROM unnest(show_trgm(i.name)) g WHERE g = ANY(t.trigrams)) AS shared " +
+      "FROM inventory_items i, (SELECT show_trgm(?) AS trigrams) t WHERE lower(i.name) %> lower(?)) c " +
+      "WHERE q > 0 AND shared::float8 / q >= ? " +
+      "ORDER BY coverage DESC, shared::float8 / (q + n - shared) DESC, id LIMIT ?";
+
+  // Threshold of the %> operator, scoped to the current transaction
+  private static final String WORD_SIMILARITY_THRESHOLD_SQL =
+      "SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)";
+
+  private static final Map<String, String> SORT_COLUMNS = Map.of(
+      "id", "id", "sku", "sku", "name", "name", "qty", "qty", "location", "location", "updatedAt", "updated_at");
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public InventoryItemRepositoryImpl(JdbcTemplate jdbcTemplate) {this.jdbcTemplate = jdbcTemplate;}
+
+  @Override
+  public FacetedPage<InventoryItem> findWithFacets(InventoryItemFilter filter, Pageable pageable)
+  {
+    List<Object> whereArgs = new ArrayList<>();
+    String where = filter.toSqlWhere(whereArgs);
+    String sql = String.format(PAGE_WITH_FACETS_SQL, where, orderBy(pageable.getSort()));
+
+    List<Object> args = new ArrayList<>(whereArgs);
+    // One extra row tells whether there is a next page without counting
+    args.add(pageable.getPageSize() + 1);
+    args.add(pageable.getOffset());
+    args.addAll(whereArgs);
+
+    List<InventoryItem> content = new ArrayList<>(pageable.getPageSize() + 1);
+    Map<String, long[]> byLocation = new LinkedHashMap<>();
+    long[] byBucket = new long[QtyBucket.values().length];
+    jdbcTemplate.query(sql, rs ->
+    {
+      if (rs.getInt("kind") == PAGE_ROW)
+      {
+        content.add(new InventoryItem(rs.getLong("id"), rs.getString("sku"), rs.getString("name"), rs.getInt("qty"),
+            rs.getString("location"), rs.getTimestamp("updated_at").toInstant()));
+        return;
+      }
+      long count = rs.getLong("matches");
+      long[] totals = byLocation.computeIfAbsent(rs.getString("location"), key -> new long[2]);
+      totals[0] += count;
+      totals[1] += rs.getLong("total_qty");
+      byBucket[rs.getInt("bucket")] += count;
+    }, args.toArray());
+
+    boolean hasNext = content.size() > pageable.getPageSize();
+    if (hasNext) {content.remove(content.size() - 1);}
+    InventoryFacets facets = facets(byLocation, byBucket);
+    return new FacetedPage<>(content, pageable.getPageNumber(), pageable.getPageSize(), hasNext, facets.total(), facets);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<FuzzyMatch> findByNameCoverage(String query, double threshold, int limit)
+  {
+    jdbcTemplate.queryForObject(WORD_SIMILARITY_THRESHOLD_SQL, String.class, Double.toString(threshold));
+    return jdbcTemplate.query(NAME_COVERAGE_SQL, (rs, rowNum) -> new FuzzyMatch(
+        new InventoryItemSnapshot(rs.getLong("id"), rs.getString("sku"), rs.getString("name"), rs.getInt("qty"),
+            rs.getString("location"), rs.getTimestamp("updated_at").toInstant()),
+        rs.getDouble("coverage")), query, query, threshold, limit);
+  }
+
+  /* This method rolls the per-group totals up into location and bucket facets. */
+  private static InventoryFacets facets(Map<String, long[]> byLocation, long[] byBucket)
+  {
+    List<InventoryFacets.LocationFacet> locations = new ArrayList<>(byLocation.size());
+    byLocation.forEach((location, totals) -> locations.add(new InventoryFacets.LocationFacet(location, totals[0], totals[1])));
+    locations.sort(Comparator.comparingLong(InventoryFacets.LocationFacet::count).reversed()
+        .thenComparing(InventoryFacets.LocationFacet::location));
+
+    List<InventoryFacets.QtyBucketFacet> buckets = new ArrayList<>(byBucket.length);
+    long total = 0;
+    for (QtyBucket bucket : QtyBucket.values())
+    {
+      buckets.add(new InventoryFacets.QtyBucketFacet(bucket.getLabel(), byBucket[bucket.ordinal()]));
+      total += byBucket[bucket.ordinal()];
+    }
+    return new InventoryFacets(locations, buckets, total);
+  }
+
+  /* This method converts the page sort into an ORDER BY clause over the table's columns; id breaks ties. */
+  private static String orderBy(Sort sort)
+  {
+    List<String> columns = new ArrayList<>();
+    boolean byId = false;
+    for (Sort.Order order : sort)
+    {
+      String column = SORT_COLUMNS.get(order.getProperty());
+      if (column == null) {throw new BadRequestException("Invalid sort field: " + order.getProperty());}
+      columns.add(column + (order.isAscending() ? " ASC" : " DESC"));
+      byId |= column.equals("id");
+    }
+    if (!byId) {columns.add("id DESC");}
+    return "ORDER BY " + String.join(", ", columns);
+  }
+}
@@ -2,84 +2,401 @@ package com.inventory.audit.inventory;
 
 import com.inventory.audit.audit.AuditEventService;
 import com.inventory.audit.common.BadRequestException;
+import com.inventory.audit.common.CountMode;
+import com.inventory.audit.common.CursorPage;
+import com.inventory.audit.common.FieldProjector;
+import com.inventory.audit.common.FieldSelection;
+import com.inventory.audit.common.KeysetCursor;
 import com.inventory.audit.common.NotFoundException;
-import org.springframework.cache.annotation.CacheEvict;
+import com.inventory.audit.common.RowCountEstimator;
+import com.inventory.audit.common.SingleFlight;
+import com.inventory.audit.common.SingleFlightRegistry;
+import com.inventory.audit.common.VersionedKey;
+import com.inventory.audit.common.SliceResponse;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service class for managing inventory items.
  * Provides business logic for CRUD operations, searching, and batch operations on inventory items.
  * Automatically records audit events for all changes.
+ * Reads run in read-only transactions, so Hibernate keeps no dirty-checking snapshots for them.
  * 
  * @author Victor Tiradoegas
  * @version 1.0
  */
 @Service
+@Transactional(readOnly = true)
 public class InventoryItemService 
 {
 
   private final InventoryItemRepository repo;
   private final AuditEventService auditEventService;
+  private final RowCountEstimator estimator;
+  private final ApplicationEventPublisher eventPublisher;
+  private final SkuPrefixIndex skuPrefixIndex;
+  private final NameFuzzyIndex nameFuzzyIndex;
+  private final FieldProjector projector;
+  private final InventoryItemCache itemCache;
+  private final InventoryReadModel readModel;
+  private final InventoryChangeVersion changeVersion;
+  private final SingleFlight<VersionedKey<Pageable>, Page<InventoryItemSnapshot>> listFlight;
+  private final SingleFlight<VersionedKey<Pageable>, Slice<InventoryItemSnapshot>> listSliceFlight;
+  private final SingleFlight<Long, InventoryItem> getFlight;
+  private final SingleFlight<String, InventoryItem> getBySkuFlight;
 
   /* This method is the constructor for the inventory item service. */
-  public InventoryItemService(InventoryItemRepository repo, AuditEventService auditEventService) 
+  public InventoryItemService(InventoryItemRepository repo, AuditEventService auditEventService, 
+      RowCountEstimator estimator, ApplicationEventPublisher eventPublisher, 
+      SkuPrefixIndex skuPrefixIndex, NameFuzzyIndex nameFuzzyIndex, FieldProjector projector, 
+      InventoryItemCache itemCache, InventoryReadModel readModel, InventoryChangeVersion changeVersion, 
+      SingleFlightRegistry singleFlights) 
   {
     this.repo = repo;
     this.auditEventService = auditEventService;
+    this.estimator = estimator;
+    this.eventPublisher = eventPublisher;
+    this.skuPrefixIndex = skuPrefixIndex;
+    this.nameFuzzyIndex = nameFuzzyIndex;
+    this.projector = projector;
+    this.itemCache = itemCache;
+    this.readModel = readModel;
+    this.changeVersion = changeVersion;
+    this.listFlight = singleFlights.create("inventory.list");
+    this.listSliceFlight = singleFlights.create("inventory.listSlice");
+    this.getFlight = singleFlights.create("inventory.get");
+    this.getBySkuFlight = singleFlights.create("inventory.getBySku");
   }
 
-  /* This method returns all the inventory items. */
-  public Page<InventoryItem> list(@NonNull Pageable pageable) 
+  /*
+   * The hot reads below coalesce concurrent identical calls through single-flight groups. They run outside a
+   * service transaction so that callers waiting on another's query do not each hold a pooled connection;
+   * the query itself runs in the repository's own read-only transaction.
+   */
+
+  /* This method returns all the inventory items; calls only share a query started at the latest table version seen here, which the list ETag was computed from or follows. */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public Page<InventoryItemSnapshot> list(@NonNull Pageable pageable) 
   {
-    return repo.findAll(pageable);
+    return listFlight.execute(new VersionedKey<>(pageable, changeVersion.latest()), () -> repo.findAllSnapshots(pageable));
   }
 
-  /* This method returns the inventory item by id. */
-  @Cacheable(value = "inventoryItems", key = "#id")
+  /* This method returns the inventory item by id, from the read model when it is loaded and otherwise through the cache. */
+  @Cacheable(value = "inventoryItems", key = "#id", condition = "!@inventoryReadModel.isReady()")
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public InventoryItem get(Long id) 
   {
     if (id == null) throw new BadRequestException("ID cannot be null");
-    return repo.findById(id).orElseThrow(() -> new NotFoundException("Item not found"));
+    if (readModel.isReady()) {return readModel.findById(id).orElseThrow(() -> new NotFoundException("Item not found"));}
+    if (itemCache.isKnownMissing(id)) {throw new NotFoundException("Item not found");}
+    return getFlight.execute(id, () -> itemCache.loadRememberingMiss(id, () -> load(id)));
   }
 
-  /* This method returns the inventory item by SKU. */
-  @Cacheable(value = "inventoryItems", key = "'sku:' + #sku")
+  /* This method returns the inventory item by SKU, from the read model when it is loaded and otherwise through the cache. */
+  @Cacheable(value = "inventoryItems", key = "'sku:' + #sku", condition = "!@inventoryReadModel.isReady()")
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public InventoryItem getBySku(String sku) 
   {
     if (sku == null || sku.isBlank()) {throw new BadRequestException("SKU cannot be null or empty");}
     
-    return repo.findBySku(sku).orElseThrow(() -> new NotFoundException("Item not found with SKU: " + sku));
+    if (readModel.isReady()) 
+    {
+      return readModel.findBySku(sku).orElseThrow(() -> new NotFoundException("Item not found with SKU: " + sku));
+    }
+    String key = InventoryItemCache.skuKey(sku);
+    if (itemCache.isKnownMissing(key)) {throw new NotFoundException("Item not found with SKU: " + sku);}
+    return getBySkuFlight.execute(sku, () -> itemCache.loadRememberingMiss(key, () -> 
+        repo.findBySku(sku).orElseThrow(() -> new NotFoundException("Item not found with SKU: " + sku))));
+  }
+
+  /* This method loads the managed inventory item by id from the database. */
+  private InventoryItem load(Long id) 
+  {
+    return repo.findById(id).orElseThrow(() -> new NotFoundException("Item not found"));
+  }
+
+  /**
+   * Resolves many items by id and SKU at once. When the read model is loaded it answers every key; otherwise
+   * cache hits are served by a single getAllPresent call and misses are loaded with at most one id query
+   * and one SKU IN query and written back to the cache in bulk. Keys recently found missing are not queried again.
+   */
+  public InventoryLookupResponse lookup(List<Long> ids, List<String> skus) 
+  {
+    if (ids.isEmpty() && skus.isEmpty()) {throw new BadRequestException("At least one id or SKU is required");}
+    
+    List<Long> distinctIds = ids.stream().distinct().toList();
+    List<String> distinctSkus = skus.stream().distinct().toList();
+    Map<Object, InventoryItem> found = new HashMap<>();
+    if (readModel.isReady()) 
+    {
+      distinctIds.forEach(id -> readModel.findById(id).ifPresent(item -> found.put(id, item)));
+      distinctSkus.forEach(sku -> readModel.findBySku(sku).ifPresent(item -> found.put(InventoryItemCache.skuKey(sku), item)));
+      return collectLookup(distinctIds, distinctSkus, found);
+    }
+    
+    List<Object> keys = new ArrayList<>(distinctIds);
+    distinctSkus.forEach(sku -> keys.add(InventoryItemCache.skuKey(sku)));
+    long missStamp = itemCache.missStamp();
+    found.putAll(itemCache.getAllPresent(keys));
+    Set<Object> knownMissing = itemCache.knownMissing(keys);
+    
+    List<Long> missedIds = distinctIds.stream()
+        .filter(id -> !found.containsKey(id) && !knownMissing.contains(id)).toList();
+    List<String> missedSkus = distinctSkus.stream()
+        .filter(sku -> !found.containsKey(InventoryItemCache.skuKey(sku)) && !knownMissing.contains(InventoryItemCache.skuKey(sku))).toList();
+    List<InventoryItem> loaded = new ArrayList<>();
+    if (!missedIds.isEmpty()) {loaded.addAll(repo.findAllById(missedIds));}
+    if (!missedSkus.isEmpty()) {loaded.addAll(repo.findBySkuIn(missedSkus));}
+    if (!loaded.isEmpty()) 
+    {
+      itemCache.putAll(loaded);
+      loaded.forEach(item -> 
+      {
+        found.put(item.getId(), item);
+        found.put(InventoryItemCache.skuKey(item.getSku()), item);
+      });
+    }
+    
+    List<Object> stillMissing = new ArrayList<>();
+    missedIds.stream().filter(id -> !found.containsKey(id)).forEach(stillMissing::add);
+    missedSkus.stream().map(InventoryItemCache::skuKey).filter(key -> !found.containsKey(key)).forEach(stillMissing::add);
+    if (!stillMissing.isEmpty()) {itemCache.rememberMissing(stillMissing, missStamp);}
+    return collectLookup(distinctIds, distinctSkus, found);
+  }
+
+  /* This method arranges lookup results in request order, once per item, and lists the unresolved keys. */
+  private InventoryLookupResponse collectLookup(List<Long> distinctIds, List<String> distinctSkus, Map<Object, InventoryItem> found) 
+  {
+    Map<Long, InventoryItem> items = new LinkedHashMap<>();
+    List<Long> missingIds = new ArrayList<>();
+    List<String> missingSkus = new ArrayList<>();
+    for (Long id : distinctIds) 
+    {
+      InventoryItem item = found.get(id);
+      if (item == null) {missingIds.add(id);}
+      else {items.putIfAbsent(item.getId(), item);}
+    }
+    for (String sku : distinctSkus) 
+    {
+      InventoryItem item = found.get(InventoryItemCache.skuKey(sku));
+      if (item == null) {missingSkus.add(sku);}
+      else {items.putIfAbsent(item.getId(), item);}
+    }
+    return new InventoryLookupResponse(new ArrayList<>(items.values()), missingIds, missingSkus);
   }
 
   /* This method returns the inventory items by location. */
-  public Page<InventoryItem> findByLocation(String location, @NonNull Pageable pageable) 
+  public Page<InventoryItemSnapshot> findByLocation(String location, @NonNull Pageable pageable) 
   {
-    return repo.findByLocation(location, pageable);
+    return repo.findSnapshotsByLocation(location, pageable);
   }
 
   /* This method returns the inventory items by SKU. */
-  public Page<InventoryItem> searchBySku(String skuPattern, @NonNull Pageable pageable) 
+  public Page<InventoryItemSnapshot> searchBySku(String skuPattern, @NonNull Pageable pageable) 
   {
-    return repo.findBySkuContainingIgnoreCase(skuPattern, pageable);
+    return repo.searchBySku(InventoryItemSpecifications.containsPattern(skuPattern), pageable);
   }
 
   /* This method returns the inventory items by name. */
-  public Page<InventoryItem> searchByName(String namePattern, @NonNull Pageable pageable) 
+  public Page<InventoryItemSnapshot> searchByName(String namePattern, @NonNull Pageable pageable) 
+  {
+    return repo.searchByName(InventoryItemSpecifications.containsPattern(namePattern), pageable);
+  }
+
+  /* This method returns the inventory items matching every criterion in the filter. */
+  public Page<InventoryItemSnapshot> query(InventoryItemFilter filter, @NonNull Pageable pageable) 
+  {
+    return projector.findViewPage(InventoryItem.class, InventoryItemSnapshot.class, InventoryItemSnapshot.FIELDS, 
+        filter.toSpecification(), pageable);
+  }
+
+  /* This method returns a slice of the inventory items matching the filter without counting them. */
+  public SliceResponse<InventoryItemSnapshot> querySlice(InventoryItemFilter filter, @NonNull Pageable pageable, CountMode countMode) 
+  {
+    Long estimate = countMode == CountMode.ESTIMATE ? estimate(filter) : null;
+    Slice<InventoryItemSnapshot> slice = projector.findViewSlice(InventoryItem.class, InventoryItemSnapshot.class, 
+        InventoryItemSnapshot.FIELDS, filter.toSpecification(), pageable);
+    return SliceResponse.of(slice, estimate);
+  }
+
+  /* This method returns a page of the inventory items matching the filter with only the selected fields. */
+  public Page<Map<String, Object>> queryFields(InventoryItemFilter filter, FieldSelection fields, @NonNull Pageable pageable) 
+  {
+    return projector.findPage(InventoryItem.class, filter.toSpecification(), fields, pageable);
+  }
+
+  /* This method returns a slice of the inventory items matching the filter with only the selected fields, without counting them. */
+  public SliceResponse<Map<String, Object>> queryFieldsSlice(InventoryItemFilter filter, FieldSelection fields, 
+      @NonNull Pageable pageable, CountMode countMode) 
+  {
+    Long estimate = countMode == CountMode.ESTIMATE ? estimate(filter) : null;
+    return SliceResponse.of(projector.findSlice(InventoryItem.class, filter.toSpecification(), fields, pageable), estimate);
+  }
+
+  /* This method estimates the number of items matching the filter from planner statistics. */
+  private Long estimate(InventoryItemFilter filter) 
+  {
+    List<Object> args = new ArrayList<>();
+    String where = filter.toSqlWhere(args);
+    return where.isEmpty() 
+        ? estimator.estimateTable("inventory_items") 
+        : estimator.estimateQuery("SELECT 1 FROM inventory_items" + where, args.toArray());
+  }
+
+  /**
+   * Returns a page of items matching the filter plus location and qty-bucket facets over all matches.
+   * The page and the grouped facet query run as one statement, and the total is summed from the facets with no COUNT.
+   */
+  public FacetedPage<InventoryItem> queryWithFacets(InventoryItemFilter filter, @NonNull Pageable pageable) 
+  {
+    return repo.findWithFacets(filter, pageable);
+  }
+
+  /* This method returns a keyset page of the inventory items matching the filter. */
+  public CursorPage<InventoryItemSnapshot> queryAfter(InventoryItemFilter filter, KeysetCursor after, int size, boolean ascending) 
+  {
+    return scroll(filter.toSpecification(), after, size, ascending);
+  }
+
+  /* This method returns SKU suggestions for a prefix, served from memory once the prefix index is loaded. */
+  public List<String> autocompleteSku(String prefix, int limit) 
+  {
+    if (prefix == null || prefix.isBlank()) {throw new BadRequestException("Prefix cannot be null or empty");}
+
+    if (skuPrefixIndex.isReady()) {return skuPrefixIndex.suggest(prefix, limit);}
+    return repo.findSkusByPrefix(InventoryItemSpecifications.prefixPattern(prefix), limit);
+  }
+
+  /* This method returns the items whose names best match the query, tolerating typos, highest score first. */
+  public List<FuzzyMatch> fuzzySearchByName(String query, int limit) 
+  {
+    if (query == null || query.isBlank()) {throw new BadRequestException("Query cannot be null or empty");}
+
+    if (!nameFuzzyIndex.isReady()) 
+    {
+      return repo.findByNameCoverage(query, nameFuzzyIndex.threshold(), limit);
+    }
+
+    List<NameFuzzyIndex.Match> matches = nameFuzzyIndex.search(query, limit);
+    Map<Long, InventoryItemSnapshot> itemsById = repo.findSnapshotsByIdIn(matches.stream().map(NameFuzzyIndex.Match::id).toList())
+        .stream()
+        .collect(Collectors.toMap(InventoryItemSnapshot::id, Function.identity()));
+    return matches.stream()
+        .filter(match -> itemsById.containsKey(match.id()))
+        .map(match -> new FuzzyMatch(itemsById.get(match.id()), match.score()))
+        .collect(Collectors.toList());
+  }
+
+  /* This method returns a slice of all the inventory items without counting them; identical concurrent calls share one query, as in list. */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public SliceResponse<InventoryItemSnapshot> listSlice(@NonNull Pageable pageable, CountMode countMode) 
+  {
+    Long estimate = countMode == CountMode.ESTIMATE ? estimator.estimateTable("inventory_items") : null;
+    Slice<InventoryItemSnapshot> slice = listSliceFlight.execute(new VersionedKey<>(pageable, changeVersion.latest()), 
+        () -> repo.findSliceBy(pageable));
+    return SliceResponse.of(slice, estimate);
+  }
+
+  /* This method returns a slice of the inventory items by location without counting them. */
+  public SliceResponse<InventoryItemSnapshot> findByLocationSlice(String location, @NonNull Pageable pageable, CountMode countMode) 
+  {
+    Long estimate = countMode == CountMode.ESTIMATE 
+        ? estimator.estimateQuery("SELECT 1 FROM inventory_items WHERE location = ?", location) 
+        : null;
+    return SliceResponse.of(repo.findSliceByLocation(location, pageable), estimate);
+  }
+
+  /* This method returns a slice of the inventory items by SKU without counting them. */
+  public SliceResponse<InventoryItemSnapshot> searchBySkuSlice(String skuPattern, @NonNull Pageable pageable, CountMode countMode) 
   {
-    return repo.findByNameContainingIgnoreCase(namePattern, pageable);
+    Long estimate = countMode == CountMode.ESTIMATE 
+        ? estimator.estimateQuery("SELECT 1 FROM inventory_items WHERE lower(sku) LIKE ? ESCAPE '\\'", 
+            InventoryItemSpecifications.containsPattern(skuPattern)) 
+        : null;
+    return SliceResponse.of(repo.searchSliceBySku(InventoryItemSpecifications.containsPattern(skuPattern), pageable), estimate);
+  }
+
+  /* This method returns a slice of the inventory items by name without counting them. */
+  public SliceResponse<InventoryItemSnapshot> searchByNameSlice(String namePattern, @NonNull Pageable pageable, CountMode countMode) 
+  {
+    Long estimate = countMode == CountMode.ESTIMATE 
+        ? estimator.estimateQuery("SELECT 1 FROM inventory_items WHERE lower(name) LIKE ? ESCAPE '\\'", 
+            InventoryItemSpecifications.containsPattern(namePattern)) 
+        : null;
+    return SliceResponse.of(repo.searchSliceByName(InventoryItemSpecifications.containsPattern(namePattern), pageable), estimate);
+  }
+
+  /* This method returns a keyset page of all the inventory items. */
+  public CursorPage<InventoryItemSnapshot> listAfter(KeysetCursor after, int size, boolean ascending) 
+  {
+    return scroll(Specification.unrestricted(), after, size, ascending);
+  }
+
+  /* This method returns a keyset page of the inventory items by location. */
+  public CursorPage<InventoryItemSnapshot> findByLocationAfter(String location, KeysetCursor after, int size, boolean ascending) 
+  {
+    return scroll(InventoryItemSpecifications.hasLocation(location), after, size, ascending);
+  }
+
+  /* This method returns a keyset page of the inventory items by SKU. */
+  public CursorPage<InventoryItemSnapshot> searchBySkuAfter(String skuPattern, KeysetCursor after, int size, boolean ascending) 
+  {
+    return scroll(InventoryItemSpecifications.skuContains(skuPattern), after, size, ascending);
+  }
+
+  /* This method returns a keyset page of the inventory items by name. */
+  public CursorPage<InventoryItemSnapshot> searchByNameAfter(String namePattern, KeysetCursor after, int size, boolean ascending) 
+  {
+    return scroll(InventoryItemSpecifications.nameContains(namePattern), after, size, ascending);
+  }
+
+  /**
+   * Runs a seek query ordered by (updatedAt, id). One extra row is fetched to detect
+   * whether another page follows, so no COUNT query or OFFSET scan is needed.
+   */
+  private CursorPage<InventoryItemSnapshot> scroll(Specification<InventoryItem> filter, KeysetCursor after, int size, boolean ascending) 
+  {
+    Specification<InventoryItem> spec = after == null 
+        ? filter 
+        : filter.and(InventoryItemSpecifications.seekAfter(after, ascending));
+    Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+    Sort sort = Sort.by(direction, "updatedAt").and(Sort.by(direction, "id"));
+
+    List<InventoryItemSnapshot> rows = projector.findViews(InventoryItem.class, InventoryItemSnapshot.class, 
+        InventoryItemSnapshot.FIELDS, spec, sort, size + 1);
+    boolean hasNext = rows.size() > size;
+    List<InventoryItemSnapshot> content = hasNext ? rows.subList(0, size) : rows;
+
+    String nextCursor = null;
+    if (hasNext) 
+    {
+      InventoryItemSnapshot last = content.get(content.size() - 1);
+      nextCursor = new KeysetCursor(last.updatedAt(), last.id()).encode();
+    }
+    return new CursorPage<>(content, size, hasNext, nextCursor);
   }
 
   /* This method creates a new inventory item. */
-  @CacheEvict(value = "inventoryItems", allEntries = true)
+  @Transactional
   public InventoryItem create(InventoryItemRequest req, String userId) 
   {
     if (repo.existsBySku(req.getSku())) throw new BadRequestException("SKU already exists");
@@ -96,15 +413,17 @@ public class InventoryItemService
     String details = String.format("Created item: SKU=%s, Name=%s, Qty=%d, Location=%s", 
         saved.getSku(), saved.getName(), saved.getQty(), saved.getLocation());
     auditEventService.record("CREATE", "InventoryItem", saved.getId(), userId, details);
+    eventPublisher.publishEvent(InventoryItemChangedEvent.created(InventoryItemSnapshot.from(saved), userId));
     
     return saved;
   }
 
   /* This method updates the inventory item by id. */
-  @CacheEvict(value = "inventoryItems", allEntries = true)
+  @Transactional
   public InventoryItem update(Long id, InventoryItemRequest req, String userId) 
   {
-    InventoryItem item = get(id);
+    InventoryItem item = load(id);
+    InventoryItemSnapshot previous = InventoryItemSnapshot.from(item);
     
     // Optimized: Only check if SKU is being changed and use existsBySku for better performance
     if (!item.getSku().equals(req.getSku())) 
@@ -132,18 +451,19 @@ public class InventoryItemService
         saved.getSku(), saved.getName(), saved.getQty(), saved.getLocation());
     String auditDetails = String.format("Old: %s | New: %s", oldDetails, newDetails);
     auditEventService.record("UPDATE", "InventoryItem", saved.getId(), userId, auditDetails);
+    eventPublisher.publishEvent(InventoryItemChangedEvent.updated(previous, InventoryItemSnapshot.from(saved), userId));
     
     return saved;
   }
 
   /* This method deletes the inventory item by id. */
-  @CacheEvict(value = "inventoryItems", allEntries = true)
+  @Transactional
   public void delete(Long id, String userId) 
   {
     if (id == null) throw new BadRequestException("ID cannot be null");
     
     // Get item before delete for audit
-    InventoryItem item = get(id);
+    InventoryItem item = load(id);
     String details = String.format("Deleted item: SKU=%s, Name=%s, Qty=%d, Location=%s", 
         item.getSku(), item.getName(), item.getQty(), item.getLocation());
     
@@ -151,11 +471,11 @@ public class InventoryItemService
     
     // Audit DELETE event (use id before it's deleted)
     auditEventService.record("DELETE", "InventoryItem", id, userId, details);
+    eventPublisher.publishEvent(InventoryItemChangedEvent.deleted(InventoryItemSnapshot.from(item), userId));
   }
 
   /* This method creates a new inventory item batch. */
-  @Transactional 
-  @CacheEvict(value = "inventoryItems", allEntries = true)
+  @Transactional
   @SuppressWarnings("null")
   public List<InventoryItem> createBatch(List<InventoryItemRequest> requests, String userId) 
   {
@@ -178,10 +498,9 @@ public class InventoryItemService
     {
       String details = String.format("Created item: SKU=%s", item.getSku());
       auditEventService.record("CREATE", "InventoryItem", item.getId(), userId, details);
+      eventPublisher.publishEvent(InventoryItemChangedEvent.created(InventoryItemSnapshot.from(item), userId));
     });
     
     return saved;
   }
-
-  public List<Object[]> getLocationSummary() {return repo.getLocationSummary();}
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.inventory.audit.inventory;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable copy of an inventory item's state at a point in time.
+ * Used to describe changes without handing out the mutable, managed entity, and as the
+ * read-only row type for list queries that never need a managed entity.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record InventoryItemSnapshot(Long id, String sku, String name, Integer qty, String location, Instant updatedAt) 
+{
+
+  // Entity attributes in constructor order, for criteria queries that select snapshots
+  static final List<String> FIELDS = List.of("id", "sku", "name", "qty", "location", "updatedAt");
+
+  /* This method copies the current state of an inventory item. */
+  public static InventoryItemSnapshot from(InventoryItem item) 
+  {
+    return new InventoryItemSnapshot(item.getId(), item.getSku(), item.getName(), item.getQty(), 
+        item.getLocation(), item.getUpdatedAt());
+  }
+}
@@ -0,0 +1,104 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.common.KeysetCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Reusable JPA specifications for inventory item queries.
+ * Provides filter predicates and the keyset seek predicate used for cursor pagination.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public final class InventoryItemSpecifications
+{
+
+  private InventoryItemSpecifications() {}
+
+  /* This method matches items at the given location. */
+  public static Specification<InventoryItem> hasLocation(String location)
+  {
+    return (root, query, cb) -> cb.equal(root.get("location"), location);
+  }
+
+  /* This method matches items whose SKU contains the pattern, ignoring case. */
+  public static Specification<InventoryItem> skuContains(String pattern)
+  {
+    return (root, query, cb) -> cb.like(cb.lower(root.get("sku")), containsPattern(pattern), '\\');
+  }
+
+  /* This method matches items whose name contains the pattern, ignoring case. */
+  public static Specification<InventoryItem> nameContains(String pattern)
+  {
+    return (root, query, cb) -> cb.like(cb.lower(root.get("name")), containsPattern(pattern), '\\');
+  }
+
+  /* This method matches items with at least the given quantity. */
+  public static Specification<InventoryItem> qtyAtLeast(int minQty)
+  {
+    return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("qty"), minQty);
+  }
+
+  /* This method matches items with at most the given quantity. */
+  public static Specification<InventoryItem> qtyAtMost(int maxQty)
+  {
+    return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("qty"), maxQty);
+  }
+
+  /* This method matches items updated at or after the given instant. */
+  public static Specification<InventoryItem> updatedAtOrAfter(Instant from)
+  {
+    return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), from);
+  }
+
+  /* This method matches items updated strictly before the given instant. */
+  public static Specification<InventoryItem> updatedBefore(Instant to)
+  {
+    return (root, query, cb) -> cb.lessThan(root.get("updatedAt"), to);
+  }
+
+  /**
+   * Seek predicate for (updatedAt, id) ordering. The redundant range bound on updatedAt
+   * lets the planner start an index range scan at the cursor instead of filtering from the top.
+   */
+  public static Specification<InventoryItem> seekAfter(KeysetCursor cursor, boolean ascending)
+  {
+    return (root, query, cb) ->
+    {
+      Instant sortKey = cursor.sortKey();
+      if (ascending)
+      {
+        return cb.and(
+            cb.greaterThanOrEqualTo(root.get("updatedAt"), sortKey),
+            cb.or(cb.greaterThan(root.get("updatedAt"), sortKey), cb.greaterThan(root.get("id"), cursor.id())));
+      }
+      return cb.and(
+          cb.lessThanOrEqualTo(root.get("updatedAt"), sortKey),
+          cb.or(cb.lessThan(root.get("updatedAt"), sortKey), cb.lessThan(root.get("id"), cursor.id())));
+    };
+  }
+
+  /* This method builds a lower-case substring LIKE pattern from user input. */
+  static String containsPattern(String pattern)
+  {
+    return "%" + escapeLike(pattern.toLowerCase(Locale.ROOT)) + "%";
+  }
+
+  /* This method builds a lower-case prefix LIKE pattern from user input. */
+  static String prefixPattern(String prefix)
+  {
+    return escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%";
+  }
+
+  /* This method escapes LIKE wildcard characters so user input is matched literally. */
+  private static String escapeLike(String value)
+  {
+    return value
+        .replace("\\", "\\\\")
+        .replace("%", "\\%")
+        .replace("_", "\\_");
+  }
+}
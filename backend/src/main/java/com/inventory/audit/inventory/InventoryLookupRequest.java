@@ -0,0 +1,28 @@
+package com.inventory.audit.inventory;
+
+import jakarta.validation.constraints.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request DTO for resolving many inventory items at once by id and/or SKU.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class InventoryLookupRequest 
+{
+  @Size(max = 1000) 
+  private List<@NotNull Long> ids = new ArrayList<>();
+  
+  @Size(max = 1000) 
+  private List<@NotBlank String> skus = new ArrayList<>();
+  
+  // Getters and setters
+  public List<Long> getIds() { return ids; }
+  public void setIds(List<Long> ids) { this.ids = ids == null ? new ArrayList<>() : ids; }
+  
+  public List<String> getSkus() { return skus; }
+  public void setSkus(List<String> skus) { this.skus = skus == null ? new ArrayList<>() : skus; }
+}
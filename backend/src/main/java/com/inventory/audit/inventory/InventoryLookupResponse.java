@@ -0,0 +1,12 @@
+package com.inventory.audit.inventory;
+
+import java.util.List;
+
+/**
+ * Record representing the result of a bulk lookup.
+ * Items are returned once each, in request order (ids first, then SKUs); keys that matched nothing are listed separately.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record InventoryLookupResponse(List<InventoryItem> items, List<Long> missingIds, List<String> missingSkus) {}
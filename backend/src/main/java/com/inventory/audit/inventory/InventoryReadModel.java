@@ -0,0 +1,468 @@
+package com.inventory.audit.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in, fully in-memory copy of the inventory table serving lookups by id and SKU without database access.
+ * Rows are stored column-wise in primitive arrays; SKU and name are packed as UTF-8 into one shared byte array
+ * and locations are dictionary-encoded. Two open-addressing tables of row numbers (linear probing, load factor
+ * at most one half) index the rows by id and by SKU. Changed and deleted items leave dead rows that are
+ * compacted once they outnumber live ones.
+ *
+ * Footprint per item: 32 bytes of row columns, 16 to 32 bytes of hash table slots, plus the UTF-8 length of
+ * SKU and name; with array growth headroom that is roughly 100 MB per million items with 40-byte SKU and name.
+ *
+ * Enabled with app.read-model.enabled; loaded by streaming the table at startup and kept current from
+ * committed {@link InventoryItemChangedEvent}s. Listeners of concurrent commits may run out of order, so a change
+ * older than the stored row is skipped, and deleted ids keep their last updatedAt for a few minutes so a late
+ * update cannot bring them back.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class InventoryReadModel
+{
+
+  private static final Logger log = LoggerFactory.getLogger(InventoryReadModel.class);
+  private static final int EMPTY = -1;
+  private static final int MIN_COMPACTION_DEAD_ROWS = 1024;
+  private static final long TOMBSTONE_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+  private final InventoryItemRepository repo;
+  private final boolean enabled;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Row columns, indexed by row number; a dead row has id -1
+  private long[] ids = new long[0];
+  private int[] qtys = new int[0];
+  private long[] updatedAtMicros = new long[0];
+  private int[] locationCodes = new int[0];
+  private int[] textOffsets = new int[0];
+  private short[] skuLengths = new short[0];
+  private short[] nameLengths = new short[0];
+  private byte[] text = new byte[0];
+  private int textSize;
+  private int rowCount;
+  private int liveRows;
+
+  private final List<String> locations = new ArrayList<>();
+  private final Map<String, Integer> locationCodeByName = new HashMap<>();
+
+  // Open-addressing tables holding row numbers
+  private int[] idTable = emptyTable(16);
+  private int[] skuTable = emptyTable(16);
+
+  // Last updatedAt of recently deleted ids, in deletion order
+  private final LinkedHashMap<Long, Tombstone> tombstones = new LinkedHashMap<>();
+
+  private boolean ready;
+  private List<InventoryItemChangedEvent> pendingDuringRebuild;
+
+  /* This record is a deleted item's last updatedAt, and when its deletion was applied. */
+  private record Tombstone(long updatedAtMicros, long deletedAtNanos) {}
+
+  public InventoryReadModel(InventoryItemRepository repo, @Value("${app.read-model.enabled:false}") boolean enabled)
+  {
+    this.repo = repo;
+    this.enabled = enabled;
+  }
+
+  /* This method returns whether the read model is loaded and can answer lookups. */
+  public boolean isReady()
+  {
+    lock.readLock().lock();
+    try {return ready;}
+    finally {lock.readLock().unlock();}
+  }
+
+  /* This method returns the item with the given id, or empty when there is none. */
+  public Optional<InventoryItem> findById(long id)
+  {
+    lock.readLock().lock();
+    try
+    {
+      int row = findRowById(id);
+      return row == EMPTY ? Optional.empty() : Optional.of(toItem(row));
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
+  /* This method returns the item with the given SKU, or empty when there is none. */
+  public Optional<InventoryItem> findBySku(String sku)
+  {
+    byte[] key = sku.getBytes(StandardCharsets.UTF_8);
+    lock.readLock().lock();
+    try
+    {
+      int row = findRowBySku(key);
+      return row == EMPTY ? Optional.empty() : Optional.of(toItem(row));
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
+  /* This method returns the approximate heap used by the read model, in bytes. */
+  public long memoryBytes()
+  {
+    lock.readLock().lock();
+    try
+    {
+      long columns = (long) ids.length * (8 + 4 + 8 + 4 + 4 + 2 + 2);
+      return columns + text.length + 4L * (idTable.length + skuTable.length);
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
+  /* This method loads the read model from the database once the application has started. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void rebuild()
+  {
+    if (!enabled) {return;}
+
+    lock.writeLock().lock();
+    try
+    {
+      pendingDuringRebuild = new ArrayList<>();
+      clear();
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+
+    try (Stream<InventoryItemSnapshot> stream = repo.streamAllSnapshots())
+    {
+      stream.forEach(item ->
+      {
+        lock.writeLock().lock();
+        try {insert(item);}
+        finally {lock.writeLock().unlock();}
+      });
+    }
+
+    lock.writeLock().lock();
+    try
+    {
+      List<InventoryItemChangedEvent> pending = pendingDuringRebuild;
+      pendingDuringRebuild = null;
+      ready = true;
+      pending.forEach(this::apply);
+      log.info("Inventory read model loaded {} items using about {} MB", liveRows, memoryBytes() >> 20);
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* This method applies a committed inventory change to the read model. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onItemChanged(InventoryItemChangedEvent event)
+  {
+    if (!enabled) {return;}
+
+    lock.writeLock().lock();
+    try
+    {
+      if (pendingDuringRebuild != null) {pendingDuringRebuild.add(event);}
+      else if (ready) {apply(event);}
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* This method replaces the rows for one change, unless a newer state was applied already; the caller holds the write lock. */
+  private void apply(InventoryItemChangedEvent event)
+  {
+    pruneTombstones();
+    InventoryItemSnapshot current = event.current();
+    if (current == null)
+    {
+      long id = event.previous().id();
+      long updatedAt = micros(event.previous().updatedAt());
+      int row = findRowById(id);
+      if (row != EMPTY) {updatedAt = Math.max(updatedAt, updatedAtMicros[row]);}
+      tombstones.put(id, new Tombstone(updatedAt, System.nanoTime()));
+      delete(id);
+    }
+    else
+    {
+      long updatedAt = micros(current.updatedAt());
+      int row = findRowById(current.id());
+      if (row != EMPTY && updatedAtMicros[row] > updatedAt) {return;}
+      Tombstone tombstone = tombstones.get(current.id());
+      if (tombstone != null && tombstone.updatedAtMicros() >= updatedAt) {return;}
+      if (event.previous() != null) {delete(event.previous().id());}
+      insert(current);
+    }
+    int deadRows = rowCount - liveRows;
+    if (deadRows > MIN_COMPACTION_DEAD_ROWS && deadRows > liveRows) {compact();}
+  }
+
+  private void insert(InventoryItemSnapshot item)
+  {
+    delete(item.id());
+    byte[] sku = item.sku().getBytes(StandardCharsets.UTF_8);
+    byte[] name = item.name().getBytes(StandardCharsets.UTF_8);
+    if (rowCount == ids.length) {growRows();}
+    if (textSize + sku.length + name.length > text.length)
+    {
+      text = Arrays.copyOf(text, Math.max(textSize + sku.length + name.length, text.length + (text.length >> 1) + 1024));
+    }
+
+    int row = rowCount++;
+    ids[row] = item.id();
+    qtys[row] = item.qty();
+    updatedAtMicros[row] = micros(item.updatedAt());
+    locationCodes[row] = locationCode(item.location());
+    textOffsets[row] = textSize;
+    skuLengths[row] = (short) sku.length;
+    nameLengths[row] = (short) name.length;
+    System.arraycopy(sku, 0, text, textSize, sku.length);
+    System.arraycopy(name, 0, text, textSize + sku.length, name.length);
+    textSize += sku.length + name.length;
+    liveRows++;
+
+    if (liveRows * 2 > idTable.length) {rehash(idTable.length * 2);}
+    else
+    {
+      idTable[probe(idTable, idHash(item.id()))] = row;
+      skuTable[probe(skuTable, skuHash(text, textOffsets[row], sku.length))] = row;
+    }
+  }
+
+  private void delete(long id)
+  {
+    int row = findRowById(id);
+    if (row == EMPTY) {return;}
+    removeFromTable(idTable, row, false);
+    removeFromTable(skuTable, row, true);
+    ids[row] = -1;
+    liveRows--;
+  }
+
+  /* This method forgets tombstones old enough that no late event for their id can still arrive. */
+  private void pruneTombstones()
+  {
+    long now = System.nanoTime();
+    Iterator<Tombstone> oldest = tombstones.values().iterator();
+    while (oldest.hasNext() && now - oldest.next().deletedAtNanos() > TOMBSTONE_RETENTION_NANOS) {oldest.remove();}
+  }
+
+  private static long micros(Instant instant) {return ChronoUnit.MICROS.between(Instant.EPOCH, instant);}
+
+  private int findRowById(long id)
+  {
+    int mask = idTable.length - 1;
+    for (int i = idHash(id) & mask; idTable[i] != EMPTY; i = (i + 1) & mask)
+    {
+      if (ids[idTable[i]] == id) {return idTable[i];}
+    }
+    return EMPTY;
+  }
+
+  private int findRowBySku(byte[] key)
+  {
+    int mask = skuTable.length - 1;
+    for (int i = skuHash(key, 0, key.length) & mask; skuTable[i] != EMPTY; i = (i + 1) & mask)
+    {
+      int row = skuTable[i];
+      if (skuLengths[row] == key.length
+          && Arrays.equals(text, textOffsets[row], textOffsets[row] + key.length, key, 0, key.length))
+      {
+        return row;
+      }
+    }
+    return EMPTY;
+  }
+
+  /* This method returns the first free slot on the probe sequence starting at hash. */
+  private static int probe(int[] table, int hash)
+  {
+    int mask = table.length - 1;
+    int i = hash & mask;
+    while (table[i] != EMPTY) {i = (i + 1) & mask;}
+    return i;
+  }
+
+  /* This method removes a row from a linear-probing table, shifting later entries back to close the gap. */
+  private void removeFromTable(int[] table, int row, boolean bySku)
+  {
+    int mask = table.length - 1;
+    int gap = homeSlot(row, bySku, mask);
+    while (table[gap] != row) {gap = (gap + 1) & mask;}
+    for (int next = (gap + 1) & mask; table[next] != EMPTY; next = (next + 1) & mask)
+    {
+      int home = homeSlot(table[next], bySku, mask);
+      boolean homeBetween = gap <= next ? (home > gap && home <= next) : (home > gap || home <= next);
+      if (!homeBetween)
+      {
+        table[gap] = table[next];
+        gap = next;
+      }
+    }
+    table[gap] = EMPTY;
+  }
+
+  private int homeSlot(int row, boolean bySku, int mask)
+  {
+    return (bySku ? skuHash(text, textOffsets[row], skuLengths[row]) : idHash(ids[row])) & mask;
+  }
+
+  /* This method rebuilds both hash tables at the given capacity from the live rows. */
+  private void rehash(int capacity)
+  {
+    idTable = emptyTable(capacity);
+    skuTable = emptyTable(capacity);
+    for (int row = 0; row < rowCount; row++)
+    {
+      if (ids[row] < 0) {continue;}
+      idTable[probe(idTable, idHash(ids[row]))] = row;
+      skuTable[probe(skuTable, skuHash(text, textOffsets[row], skuLengths[row]))] = row;
+    }
+  }
+
+  /* This method drops dead rows and their text, then rebuilds the hash tables. */
+  private void compact()
+  {
+    int live = 0;
+    int newTextSize = 0;
+    for (int row = 0; row < rowCount; row++)
+    {
+      if (ids[row] < 0) {continue;}
+      int length = skuLengths[row] + nameLengths[row];
+      System.arraycopy(text, textOffsets[row], text, newTextSize, length);
+      ids[live] = ids[row];
+      qtys[live] = qtys[row];
+      updatedAtMicros[live] = updatedAtMicros[row];
+      locationCodes[live] = locationCodes[row];
+      textOffsets[live] = newTextSize;
+      skuLengths[live] = skuLengths[row];
+      nameLengths[live] = nameLengths[row];
+      newTextSize += length;
+      live++;
+    }
+    rowCount = live;
+    textSize = newTextSize;
+    rehash(tableCapacity(live));
+  }
+
+  private void growRows()
+  {
+    int capacity = Math.max(1024, ids.length + (ids.length >> 1));
+    ids = Arrays.copyOf(ids, capacity);
+    qtys = Arrays.copyOf(qtys, capacity);
+    updatedAtMicros = Arrays.copyOf(updatedAtMicros, capacity);
+    locationCodes = Arrays.copyOf(locationCodes, capacity);
+    textOffsets = Arrays.copyOf(textOffsets, capacity);
+    skuLengths = Arrays.copyOf(skuLengths, capacity);
+    nameLengths = Arrays.copyOf(nameLengths, capacity);
+  }
+
+  private int locationCode(String location)
+  {
+    Integer code = locationCodeByName.get(location);
+    if (code == null)
+    {
+      code = locations.size();
+      locations.add(location);
+      locationCodeByName.put(location, code);
+    }
+    return code;
+  }
+
+  private InventoryItem toItem(int row)
+  {
+    int offset = textOffsets[row];
+    String sku = new String(text, offset, skuLengths[row], StandardCharsets.UTF_8);
+    String name = new String(text, offset + skuLengths[row], nameLengths[row], StandardCharsets.UTF_8);
+    Instant updatedAt = Instant.EPOCH.plus(updatedAtMicros[row], ChronoUnit.MICROS);
+    return new InventoryItem(ids[row], sku, name, qtys[row], locations.get(locationCodes[row]), updatedAt);
+  }
+
+  private void clear()
+  {
+    ids = new long[0];
+    qtys = new int[0];
+    updatedAtMicros = new long[0];
+    locationCodes = new int[0];
+    textOffsets = new int[0];
+    skuLengths = new short[0];
+    nameLengths = new short[0];
+    text = new byte[0];
+    textSize = 0;
+    rowCount = 0;
+    liveRows = 0;
+    locations.clear();
+    locationCodeByName.clear();
+    tombstones.clear();
+    idTable = emptyTable(16);
+    skuTable = emptyTable(16);
+    ready = false;
+  }
+
+  private static int[] emptyTable(int capacity)
+  {
+    int[] table = new int[capacity];
+    Arrays.fill(table, EMPTY);
+    return table;
+  }
+
+  private static int tableCapacity(int entries)
+  {
+    return Math.max(16, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+  }
+
+  static int idHash(long id)
+  {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /* This method hashes a UTF-8 byte range with FNV-1a followed by a final avalanche step. */
+  private static int skuHash(byte[] bytes, int offset, int length)
+  {
+    int h = 0x811C9DC5;
+    for (int i = offset; i < offset + length; i++)
+    {
+      h = (h ^ bytes[i]) * 0x01000193;
+    }
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    return h ^ (h >>> 13);
+  }
+}
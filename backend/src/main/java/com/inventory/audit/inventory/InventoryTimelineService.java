@@ -0,0 +1,39 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.audit.AuditEventService;
+import com.inventory.audit.audit.AuditEventView;
+import com.inventory.audit.common.CursorPage;
+import com.inventory.audit.common.KeysetCursor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service assembling an item's timeline from its current state and its audit trail.
+ * The item is read through {@link InventoryItemService#get}, so it usually comes from the read model or the item cache
+ * and only the history page is queried.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Service
+public class InventoryTimelineService 
+{
+
+  private static final String ENTITY_TYPE = "InventoryItem";
+
+  private final InventoryItemService itemService;
+  private final AuditEventService auditEventService;
+
+  public InventoryTimelineService(InventoryItemService itemService, AuditEventService auditEventService) 
+  {
+    this.itemService = itemService;
+    this.auditEventService = auditEventService;
+  }
+
+  /* This method returns the item with the first page of its history, or with the page after the cursor. */
+  public ItemTimeline getTimeline(Long id, KeysetCursor after, int size) 
+  {
+    InventoryItem item = itemService.get(id);
+    CursorPage<AuditEventView> history = auditEventService.findByEntityAfter(ENTITY_TYPE, id, after, size);
+    return new ItemTimeline(item, history);
+  }
+}
@@ -0,0 +1,12 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.audit.AuditEventView;
+import com.inventory.audit.common.CursorPage;
+
+/**
+ * Record representing an item's history view: its current state and one keyset page of its audit events, newest first.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record ItemTimeline(InventoryItem item, CursorPage<AuditEventView> history) {}
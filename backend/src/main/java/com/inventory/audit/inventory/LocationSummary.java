@@ -0,0 +1,9 @@
+package com.inventory.audit.inventory;
+
+/**
+ * Record representing the number of items and the total quantity held at one location.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record LocationSummary(String location, long count, long totalQty) {}
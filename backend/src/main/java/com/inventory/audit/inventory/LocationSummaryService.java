@@ -0,0 +1,173 @@
+package com.inventory.audit.inventory;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service maintaining per-location item counts and quantities without scanning inventory_items.
+ * The inventory changes of a transaction are summed per location and applied to the location_summary table
+ * just before that transaction commits, once per location and in location order, so concurrent writers lock
+ * summary rows in the same order and cannot deadlock on them. Reads come from the table, so every instance
+ * serves the committed totals. A scheduled job reconciles the table against inventory_items; when it corrects a
+ * location it moves on the inventory change version on every instance, so summary ETags issued for the wrong
+ * totals stop matching.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Service
+public class LocationSummaryService
+{
+
+  private static final Logger log = LoggerFactory.getLogger(LocationSummaryService.class);
+
+  private static final String APPLY_DELTA_SQL =
+      "INSERT INTO location_summary (location, item_count, total_qty) VALUES (?, ?, ?) " +
+      "ON CONFLICT (location) DO UPDATE SET item_count = location_summary.item_count + EXCLUDED.item_count, " +
+      "total_qty = location_summary.total_qty + EXCLUDED.total_qty";
+
+  private static final String RECONCILE_SQL =
+      "INSERT INTO location_summary (location, item_count, total_qty) " +
+      "SELECT location, COUNT(*), COALESCE(SUM(qty), 0) FROM inventory_items GROUP BY location " +
+      "ON CONFLICT (location) DO UPDATE SET item_count = EXCLUDED.item_count, total_qty = EXCLUDED.total_qty " +
+      "WHERE location_summary.item_count <> EXCLUDED.item_count OR location_summary.total_qty <> EXCLUDED.total_qty";
+
+  private static final String DELETE_EMPTY_SQL =
+      "DELETE FROM location_summary s WHERE NOT EXISTS (SELECT 1 FROM inventory_items i WHERE i.location = s.location)";
+
+  // Sent on commit like the table triggers' notifications, since the summary's ETags follow the inventory version
+  private static final String NOTIFY_CHANGE_SQL = "SELECT pg_notify('table_changes', ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final InventoryChangeVersion changeVersion;
+  private final TransactionTemplate reconcileTransaction;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public LocationSummaryService(JdbcTemplate jdbcTemplate, InventoryChangeVersion changeVersion,
+      PlatformTransactionManager transactionManager)
+  {
+    this.jdbcTemplate = jdbcTemplate;
+    this.changeVersion = changeVersion;
+    this.reconcileTransaction = new TransactionTemplate(transactionManager);
+    // Repeatable read makes the reconcile fail, rather than overwrite, if a write commits to a row it is correcting
+    this.reconcileTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+  }
+
+  /* This method returns the summary of every location holding items, ordered by location. */
+  public List<LocationSummary> getSummary()
+  {
+    return jdbcTemplate.query(
+        "SELECT location, item_count, total_qty FROM location_summary WHERE item_count > 0 ORDER BY location",
+        (rs, rowNum) -> new LocationSummary(rs.getString(1), rs.getLong(2), rs.getLong(3)));
+  }
+
+  /* This method adds a change's delta to the writing transaction's per-location totals, applied when it commits. */
+  @EventListener
+  public void onItemChanging(InventoryItemChangedEvent event)
+  {
+    if (!TransactionSynchronizationManager.isSynchronizationActive())
+    {
+      Map<String, long[]> single = new TreeMap<>();
+      addDeltas(single, event);
+      apply(single);
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, long[]> pending = (Map<String, long[]>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null)
+    {
+      Map<String, long[]> collected = new TreeMap<>();
+      TransactionSynchronizationManager.bindResource(this, collected);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+      {
+        @Override
+        public void beforeCommit(boolean readOnly)
+        {
+          // Item rows are written first, so no transaction holds a summary row while waiting on an item row
+          entityManager.flush();
+          apply(collected);
+        }
+
+        @Override
+        public void afterCompletion(int status) {TransactionSynchronizationManager.unbindResource(LocationSummaryService.this);}
+      });
+      pending = collected;
+    }
+    addDeltas(pending, event);
+  }
+
+  /* This method upserts the summed deltas in location order, dropping locations left without items. */
+  private void apply(Map<String, long[]> deltas)
+  {
+    deltas.forEach((location, delta) ->
+    {
+      if (delta[0] == 0 && delta[1] == 0) {return;}
+      jdbcTemplate.update(APPLY_DELTA_SQL, location, delta[0], delta[1]);
+      if (delta[0] < 0) {jdbcTemplate.update("DELETE FROM location_summary WHERE location = ? AND item_count <= 0", location);}
+    });
+  }
+
+  /* This method corrects the summary table from inventory_items and moves on the inventory version if anything changed. */
+  @Scheduled(fixedDelayString = "${app.location-summary.reconcile-interval-ms:300000}",
+      initialDelayString = "${app.location-summary.reconcile-interval-ms:300000}")
+  public void reconcile()
+  {
+    try
+    {
+      Integer corrected = reconcileTransaction.execute(status ->
+      {
+        int rows = jdbcTemplate.update(RECONCILE_SQL) + jdbcTemplate.update(DELETE_EMPTY_SQL);
+        if (rows > 0) {jdbcTemplate.query(NOTIFY_CHANGE_SQL, rs -> {}, changeVersion.tableName());}
+        return rows;
+      });
+      if (corrected != null && corrected > 0)
+      {
+        // This instance need not wait for the notification, like its own inventory writes
+        changeVersion.changed();
+        log.warn("Location summary reconciled: {} locations corrected", corrected);
+      }
+    }
+    catch (ConcurrencyFailureException e)
+    {
+      log.info("Location summary reconcile skipped because of concurrent writes; retrying next run");
+    }
+  }
+
+  /* This method adds a change's (count, qty) delta per affected location to the given totals. */
+  private static void addDeltas(Map<String, long[]> deltas, InventoryItemChangedEvent event)
+  {
+    InventoryItemSnapshot previous = event.previous();
+    InventoryItemSnapshot current = event.current();
+    if (previous != null)
+    {
+      long[] delta = deltas.computeIfAbsent(previous.location(), key -> new long[2]);
+      delta[0]--;
+      delta[1] -= previous.qty();
+    }
+    if (current != null)
+    {
+      long[] delta = deltas.computeIfAbsent(current.location(), key -> new long[2]);
+      delta[0]++;
+      delta[1] += current.qty();
+    }
+  }
+}
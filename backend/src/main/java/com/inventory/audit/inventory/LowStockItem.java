@@ -0,0 +1,14 @@
+package com.inventory.audit.inventory;
+
+/**
+ * An inventory item whose quantity is below its effective reorder threshold.
+ * Shortfall is how many units the item is below the threshold.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record LowStockItem(Long id, String sku, String name, String location, int qty, int threshold) 
+{
+
+  public int shortfall() { return threshold - qty; }
+}
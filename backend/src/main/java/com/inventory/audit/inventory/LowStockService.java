@@ -0,0 +1,416 @@
+package com.inventory.audit.inventory;
+
+import com.inventory.audit.audit.AuditEventService;
+import com.inventory.audit.common.BadRequestException;
+import com.inventory.audit.common.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service maintaining the set of items whose quantity is below their reorder threshold.
+ * An item's threshold is its own when set, otherwise its location's. Thresholds are stored in
+ * item_reorder_thresholds and location_reorder_thresholds and mirrored in memory together with every
+ * breaching item, kept in sets ordered by shortfall, so the low-stock view is read without a query.
+ * Each inventory write is evaluated from its before and after snapshots against the stored thresholds: the
+ * crossing is audited inside the writing transaction, under the user who made the write, and the in-memory sets
+ * are updated once it commits. Location thresholds are read once per location per transaction, so a batch of
+ * creates costs one lookup per location it touches, and item thresholds only for updates, since a new item has none.
+ * The sets only see this instance's commits, so they are also rebuilt from the database periodically
+ * (app.low-stock.rebuild-interval-ms) to pick up writes made through other instances.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Service
+public class LowStockService
+{
+
+  private static final Logger log = LoggerFactory.getLogger(LowStockService.class);
+
+  private static final Comparator<LowStockItem> BY_SHORTFALL =
+      Comparator.comparingInt(LowStockItem::shortfall).reversed().thenComparing(LowStockItem::id);
+
+  private static final String BREACHING_SQL =
+      "SELECT i.id, i.sku, i.name, i.location, i.qty, COALESCE(it.threshold, lt.threshold) AS threshold " +
+      "FROM inventory_items i " +
+      "LEFT JOIN item_reorder_thresholds it ON it.item_id = i.id " +
+      "LEFT JOIN location_reorder_thresholds lt ON lt.location = i.location " +
+      "WHERE i.qty < COALESCE(it.threshold, lt.threshold)";
+
+  private static final String ITEM_THRESHOLD_SQL = "SELECT threshold FROM item_reorder_thresholds WHERE item_id = ?";
+  private static final String LOCATION_THRESHOLD_SQL = "SELECT threshold FROM location_reorder_thresholds WHERE location = ?";
+
+  // The item's own threshold, then the thresholds of its previous and current locations
+  private static final String THRESHOLDS_SQL =
+      "SELECT (SELECT threshold FROM item_reorder_thresholds WHERE item_id = ?), " +
+      "(SELECT threshold FROM location_reorder_thresholds WHERE location = ?), " +
+      "(SELECT threshold FROM location_reorder_thresholds WHERE location = ?)";
+
+  private static final RowMapper<LowStockItem> ROW_MAPPER = (rs, rowNum) -> new LowStockItem(
+      rs.getLong("id"), rs.getString("sku"), rs.getString("name"), rs.getString("location"),
+      rs.getInt("qty"), rs.getInt("threshold"));
+
+  private final JdbcTemplate jdbcTemplate;
+  private final InventoryItemRepository repo;
+  private final AuditEventService auditEventService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, Integer> itemThresholds = new HashMap<>();
+  private final Map<String, Integer> locationThresholds = new HashMap<>();
+  private final Map<Long, LowStockItem> breaching = new HashMap<>();
+  private final NavigableSet<LowStockItem> ordered = new TreeSet<>(BY_SHORTFALL);
+  private final Map<String, NavigableSet<LowStockItem>> orderedByLocation = new HashMap<>();
+  private boolean ready;
+  private List<Runnable> pendingDuringRebuild;
+
+  public LowStockService(JdbcTemplate jdbcTemplate, InventoryItemRepository repo, AuditEventService auditEventService,
+      ApplicationEventPublisher eventPublisher)
+  {
+    this.jdbcTemplate = jdbcTemplate;
+    this.repo = repo;
+    this.auditEventService = auditEventService;
+    this.eventPublisher = eventPublisher;
+  }
+
+  /* This method returns up to limit low-stock items, largest shortfall first, optionally at one location. */
+  public List<LowStockItem> getLowStock(String location, int limit)
+  {
+    lock.readLock().lock();
+    try
+    {
+      if (ready)
+      {
+        NavigableSet<LowStockItem> source = location == null ? ordered : orderedByLocation.get(location);
+        List<LowStockItem> result = new ArrayList<>(Math.min(limit, source == null ? 0 : source.size()));
+        if (source == null) {return result;}
+        Iterator<LowStockItem> it = source.iterator();
+        while (it.hasNext() && result.size() < limit) {result.add(it.next());}
+        return result;
+      }
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+
+    // Not loaded yet; answer from the database
+    String order = " ORDER BY COALESCE(it.threshold, lt.threshold) - i.qty DESC, i.id LIMIT ?";
+    return location == null
+        ? jdbcTemplate.query(BREACHING_SQL + order, ROW_MAPPER, limit)
+        : jdbcTemplate.query(BREACHING_SQL + " AND i.location = ?" + order, ROW_MAPPER, location, limit);
+  }
+
+  /* This method sets the reorder threshold of one item. */
+  @Transactional
+  public void setItemThreshold(Long id, Integer threshold, String userId)
+  {
+    InventoryItemSnapshot item = InventoryItemSnapshot.from(
+        repo.findById(id).orElseThrow(() -> new NotFoundException("Item not found")));
+    Integer[] stored = storedThresholds(id, item.location(), item.location());
+    Integer before = stored[0] != null ? stored[0] : stored[1];
+    Integer after = threshold != null ? threshold : stored[1];
+    if (threshold == null)
+    {
+      jdbcTemplate.update("DELETE FROM item_reorder_thresholds WHERE item_id = ?", id);
+    }
+    else
+    {
+      jdbcTemplate.update("INSERT INTO item_reorder_thresholds (item_id, threshold) VALUES (?, ?) " +
+          "ON CONFLICT (item_id) DO UPDATE SET threshold = EXCLUDED.threshold", id, threshold);
+    }
+    auditCrossing(item, before, after, userId);
+    eventPublisher.publishEvent(ReorderThresholdChangedEvent.forItem(id, threshold));
+  }
+
+  /* This method sets the reorder threshold shared by the items at a location without their own threshold. */
+  @Transactional
+  public void setLocationThreshold(String location, Integer threshold, String userId)
+  {
+    if (location == null || location.isBlank()) {throw new BadRequestException("Location cannot be null or empty");}
+    Integer before = storedThresholds(null, location, null)[1];
+    if (threshold == null)
+    {
+      jdbcTemplate.update("DELETE FROM location_reorder_thresholds WHERE location = ?", location);
+    }
+    else
+    {
+      jdbcTemplate.update("INSERT INTO location_reorder_thresholds (location, threshold) VALUES (?, ?) " +
+          "ON CONFLICT (location) DO UPDATE SET threshold = EXCLUDED.threshold", location, threshold);
+    }
+
+    // Audit every item at the location, without a threshold of its own, whose state flips
+    int oldBound = before == null ? Integer.MIN_VALUE : before;
+    int newBound = threshold == null ? Integer.MIN_VALUE : threshold;
+    if (oldBound != newBound)
+    {
+      jdbcTemplate.query("SELECT i.id, i.sku, i.name, i.qty, i.location, i.updated_at FROM inventory_items i " +
+          "WHERE i.location = ? AND i.qty >= ? AND i.qty < ? " +
+          "AND NOT EXISTS (SELECT 1 FROM item_reorder_thresholds it WHERE it.item_id = i.id)",
+          rs ->
+          {
+            InventoryItemSnapshot item = new InventoryItemSnapshot(rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getInt(4), rs.getString(5), rs.getTimestamp(6).toInstant());
+            auditCrossing(item, before, threshold, userId);
+          },
+          location, Math.min(oldBound, newBound), Math.max(oldBound, newBound));
+    }
+    eventPublisher.publishEvent(ReorderThresholdChangedEvent.forLocation(location, threshold));
+  }
+
+  /* This method audits an inventory write that moves an item across its threshold, inside the writing transaction. */
+  @EventListener
+  public void onItemChanging(InventoryItemChangedEvent event)
+  {
+    InventoryItemSnapshot previous = event.previous();
+    InventoryItemSnapshot current = event.current();
+    if (current == null) {return;}
+    // Same quantity under the same thresholds cannot cross one
+    if (previous != null && previous.qty().equals(current.qty()) && previous.location().equals(current.location())) {return;}
+
+    // Read from the database rather than memory, which may lag writes made through other instances
+    Map<String, Integer> locations = transactionLocationThresholds();
+    Integer own = previous == null ? null : jdbcTemplate.query(ITEM_THRESHOLD_SQL, 
+        rs -> rs.next() ? rs.getObject(1, Integer.class) : null, current.id());
+    Integer previousThreshold = previous == null ? null : (own != null ? own : locationThreshold(locations, previous.location()));
+    Integer currentThreshold = own != null ? own : locationThreshold(locations, current.location());
+    boolean wasLow = previous != null && isBelow(previous.qty(), previousThreshold);
+    boolean isLow = isBelow(current.qty(), currentThreshold);
+    if (wasLow != isLow) {audit(current, isLow, isLow ? currentThreshold : previousThreshold, event.userId());}
+  }
+
+  /* This method returns the location thresholds read so far in the current transaction, keyed by location; null values mean none is set. */
+  private Map<String, Integer> transactionLocationThresholds()
+  {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {return new HashMap<>();}
+
+    @SuppressWarnings("unchecked")
+    Map<String, Integer> read = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+    if (read == null)
+    {
+      Map<String, Integer> created = new HashMap<>();
+      TransactionSynchronizationManager.bindResource(this, created);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+      {
+        @Override
+        public void afterCompletion(int status) {TransactionSynchronizationManager.unbindResource(LowStockService.this);}
+      });
+      read = created;
+    }
+    return read;
+  }
+
+  /* This method returns a location's threshold, querying it only the first time the location is seen. */
+  private Integer locationThreshold(Map<String, Integer> read, String location)
+  {
+    if (!read.containsKey(location))
+    {
+      read.put(location, jdbcTemplate.query(LOCATION_THRESHOLD_SQL, rs -> rs.next() ? rs.getObject(1, Integer.class) : null, location));
+    }
+    return read.get(location);
+  }
+
+  /* This method applies a committed inventory change to the in-memory low-stock sets. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onItemChanged(InventoryItemChangedEvent event)
+  {
+    handleCommitted(event);
+  }
+
+  /* This method applies a committed threshold change to the in-memory thresholds and low-stock sets. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onThresholdChanged(ReorderThresholdChangedEvent event)
+  {
+    handleCommitted(event);
+  }
+
+  /*
+   * This method loads thresholds and breaching items from the database once the application has started, and
+   * reloads them periodically. A reload keeps serving the previous view until the new one is in place.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${app.low-stock.rebuild-interval-ms:300000}",
+      initialDelayString = "${app.low-stock.rebuild-interval-ms:300000}")
+  @Transactional(readOnly = true)
+  public void rebuild()
+  {
+    lock.writeLock().lock();
+    try
+    {
+      pendingDuringRebuild = new ArrayList<>();
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+
+    Map<Long, Integer> items = new HashMap<>();
+    jdbcTemplate.query("SELECT item_id, threshold FROM item_reorder_thresholds",
+        rs -> {items.put(rs.getLong(1), rs.getInt(2));});
+    Map<String, Integer> locations = new HashMap<>();
+    jdbcTemplate.query("SELECT location, threshold FROM location_reorder_thresholds",
+        rs -> {locations.put(rs.getString(1), rs.getInt(2));});
+    List<LowStockItem> rows = jdbcTemplate.query(BREACHING_SQL, ROW_MAPPER);
+
+    lock.writeLock().lock();
+    try
+    {
+      itemThresholds.clear();
+      itemThresholds.putAll(items);
+      locationThresholds.clear();
+      locationThresholds.putAll(locations);
+      breaching.clear();
+      ordered.clear();
+      orderedByLocation.clear();
+      rows.forEach(this::add);
+
+      List<Runnable> pending = pendingDuringRebuild;
+      pendingDuringRebuild = null;
+      ready = true;
+      pending.forEach(Runnable::run);
+      log.info("Low-stock view loaded {} breaching items ({} item and {} location thresholds)",
+          breaching.size(), itemThresholds.size(), locationThresholds.size());
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* This method queries what a committed change needs before taking the write lock, so readers never wait on the database. */
+  private void handleCommitted(Object event)
+  {
+    List<LowStockItem> rows = event instanceof ReorderThresholdChangedEvent change ? breachingFor(change) : List.of();
+    lock.writeLock().lock();
+    try
+    {
+      if (pendingDuringRebuild != null) {pendingDuringRebuild.add(() -> apply(event, rows));}
+      else if (ready) {apply(event, rows);}
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* This method returns the items breaching after a threshold change, for the item or location it covers. */
+  private List<LowStockItem> breachingFor(ReorderThresholdChangedEvent change)
+  {
+    return change.itemId() != null
+        ? jdbcTemplate.query(BREACHING_SQL + " AND i.id = ?", ROW_MAPPER, change.itemId())
+        : jdbcTemplate.query(BREACHING_SQL + " AND i.location = ?", ROW_MAPPER, change.location());
+  }
+
+  /* This method updates the in-memory state for one committed change, given its breaching rows; the caller holds the write lock. */
+  private void apply(Object event, List<LowStockItem> rows)
+  {
+    if (event instanceof InventoryItemChangedEvent change)
+    {
+      if (change.previous() != null) {remove(change.previous().id());}
+      InventoryItemSnapshot current = change.current();
+      if (current == null)
+      {
+        itemThresholds.remove(change.previous().id());
+        return;
+      }
+      Integer threshold = effectiveThreshold(current);
+      if (isBelow(current.qty(), threshold))
+      {
+        add(new LowStockItem(current.id(), current.sku(), current.name(), current.location(), current.qty(), threshold));
+      }
+    }
+    else if (event instanceof ReorderThresholdChangedEvent change)
+    {
+      if (change.itemId() != null)
+      {
+        if (change.threshold() == null) {itemThresholds.remove(change.itemId());}
+        else {itemThresholds.put(change.itemId(), change.threshold());}
+        remove(change.itemId());
+        rows.forEach(this::add);
+      }
+      else
+      {
+        if (change.threshold() == null) {locationThresholds.remove(change.location());}
+        else {locationThresholds.put(change.location(), change.threshold());}
+        NavigableSet<LowStockItem> atLocation = orderedByLocation.remove(change.location());
+        if (atLocation != null)
+        {
+          atLocation.forEach(item -> {breaching.remove(item.id()); ordered.remove(item);});
+        }
+        rows.forEach(this::add);
+      }
+    }
+  }
+
+  /* This method returns the stored item threshold and the thresholds of two locations; null where none is set. */
+  private Integer[] storedThresholds(Long itemId, String previousLocation, String currentLocation)
+  {
+    return jdbcTemplate.queryForObject(THRESHOLDS_SQL, (rs, rowNum) -> new Integer[] {
+        rs.getObject(1, Integer.class), rs.getObject(2, Integer.class), rs.getObject(3, Integer.class)},
+        itemId, previousLocation, currentLocation);
+  }
+
+  /* This method returns the threshold that applies to an item, or null when it has none; the caller holds a lock. */
+  private Integer effectiveThreshold(InventoryItemSnapshot item)
+  {
+    Integer own = itemThresholds.get(item.id());
+    return own != null ? own : locationThresholds.get(item.location());
+  }
+
+  private void add(LowStockItem item)
+  {
+    breaching.put(item.id(), item);
+    ordered.add(item);
+    orderedByLocation.computeIfAbsent(item.location(), key -> new TreeSet<>(BY_SHORTFALL)).add(item);
+  }
+
+  private void remove(Long id)
+  {
+    LowStockItem item = breaching.remove(id);
+    if (item == null) {return;}
+    ordered.remove(item);
+    NavigableSet<LowStockItem> atLocation = orderedByLocation.get(item.location());
+    atLocation.remove(item);
+    if (atLocation.isEmpty()) {orderedByLocation.remove(item.location());}
+  }
+
+  private void auditCrossing(InventoryItemSnapshot item, Integer before, Integer after, String userId)
+  {
+    boolean wasLow = isBelow(item.qty(), before);
+    boolean isLow = isBelow(item.qty(), after);
+    if (wasLow != isLow) {audit(item, isLow, isLow ? after : before, userId);}
+  }
+
+  private void audit(InventoryItemSnapshot item, boolean low, int threshold, String userId)
+  {
+    String details = String.format("SKU=%s, Qty=%d, Location=%s, Threshold=%d",
+        item.sku(), item.qty(), item.location(), threshold);
+    auditEventService.record(low ? "LOW_STOCK" : "STOCK_RESTORED", "InventoryItem", item.id(), userId, details);
+  }
+
+  private static boolean isBelow(Integer qty, Integer threshold)
+  {
+    return threshold != null && qty != null && qty < threshold;
+  }
+}
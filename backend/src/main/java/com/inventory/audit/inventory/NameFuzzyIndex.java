@@ -0,0 +1,430 @@
+package com.inventory.audit.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram index over inventory item names for typo-tolerant search.
+ * Each live name occupies a dense int slot; every trigram maps to a posting list of slots held in a
+ * primitive int array, sorted by slot. A query merges the posting lists of its trigrams, so the shared
+ * trigrams of each candidate are counted as its slot comes up, using memory for one position per query
+ * trigram rather than a counter per slot. Candidates are ranked by the share of the query's trigrams found
+ * in the name, then by whole-string trigram similarity, then by item id.
+ * Trigrams follow pg_trgm conventions (lower case, words padded with two leading spaces and one trailing).
+ * Deleted or renamed items leave tombstoned slots that are compacted once they outnumber live ones.
+ * Listeners of concurrent commits may run out of commit order, so a change older than the indexed name, or than a
+ * recent delete of the item, is ignored.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class NameFuzzyIndex
+{
+
+  private static final Logger log = LoggerFactory.getLogger(NameFuzzyIndex.class);
+  private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+
+  // Long enough for any listener still running for a concurrent commit to finish
+  private static final long DELETED_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+  private final InventoryItemRepository repo;
+  private final double threshold;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, IntList> postings = new HashMap<>();
+  private final Map<Long, Integer> slotById = new HashMap<>();
+  private long[] slotIds = new long[1024];
+  private int[] slotTrigramCounts = new int[1024];
+  private long[] slotUpdatedAtMicros = new long[1024];
+  private final LinkedHashMap<Long, Deleted> deleted = new LinkedHashMap<>();
+  private int slotCount;
+  private int tombstones;
+  private boolean ready;
+  private List<InventoryItemChangedEvent> pendingDuringRebuild;
+
+  public NameFuzzyIndex(InventoryItemRepository repo, @Value("${app.fuzzy-search.threshold:0.4}") double threshold)
+  {
+    this.repo = repo;
+    this.threshold = threshold;
+  }
+
+  /* This record is one ranked match: the item id and its score between 0 and 1. */
+  public record Match(long id, double score) {}
+
+  /* This record is when a deleted item was last changed, and when its delete was applied. */
+  private record Deleted(long updatedAtMicros, long deletedAtNanos) {}
+
+  /* This method returns the minimum share of the query's trigrams a name must contain to match. */
+  public double threshold() {return threshold;}
+
+  /* This method returns whether the index is loaded and can answer queries. */
+  public boolean isReady()
+  {
+    lock.readLock().lock();
+    try {return ready;}
+    finally {lock.readLock().unlock();}
+  }
+
+  /* This method returns up to limit item ids whose names best match the query, highest score first. */
+  public List<Match> search(String query, int limit)
+  {
+    long[] queryTrigrams = trigrams(query);
+    if (queryTrigrams.length == 0) {return Collections.emptyList();}
+
+    lock.readLock().lock();
+    try
+    {
+      PriorityQueue<double[]> best = new PriorityQueue<>(limit + 1, (a, b) -> compareRank(a, b));
+      PostingMerge merge = new PostingMerge(queryTrigrams.length);
+      for (long trigram : queryTrigrams)
+      {
+        IntList list = postings.get(trigram);
+        if (list != null) {merge.add(list);}
+      }
+
+      // Each slot comes up once, with the number of query trigrams whose posting lists contain it
+      while (merge.hasNext())
+      {
+        int slot = merge.nextSlot();
+        int shared = merge.countAndAdvance(slot);
+        if (slotIds[slot] < 0) {continue;}
+        double coverage = (double) shared / queryTrigrams.length;
+        if (coverage < threshold) {continue;}
+        double similarity = (double) shared / (queryTrigrams.length + slotTrigramCounts[slot] - shared);
+        best.add(new double[] {coverage, similarity, slotIds[slot]});
+        if (best.size() > limit) {best.poll();}
+      }
+
+      List<Match> result = new ArrayList<>(best.size());
+      while (!best.isEmpty())
+      {
+        double[] entry = best.poll();
+        result.add(new Match((long) entry[2], entry[0]));
+      }
+      Collections.reverse(result);
+      return result;
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
+  /* This method rebuilds the index from the database once the application has started. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void rebuild()
+  {
+    lock.writeLock().lock();
+    try
+    {
+      pendingDuringRebuild = new ArrayList<>();
+      clear();
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+
+    try (Stream<InventoryItemSnapshot> stream = repo.streamAllSnapshots())
+    {
+      stream.forEach(item ->
+      {
+        lock.writeLock().lock();
+        try {add(item.id(), item.name(), micros(item.updatedAt()));}
+        finally {lock.writeLock().unlock();}
+      });
+    }
+
+    lock.writeLock().lock();
+    try
+    {
+      List<InventoryItemChangedEvent> pending = pendingDuringRebuild;
+      pendingDuringRebuild = null;
+      ready = true;
+      pending.forEach(this::apply);
+      log.info("Fuzzy name index loaded {} items, {} distinct trigrams", slotById.size(), postings.size());
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* This method applies a committed inventory change to the index. */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onItemChanged(InventoryItemChangedEvent event)
+  {
+    lock.writeLock().lock();
+    try
+    {
+      if (pendingDuringRebuild != null) {pendingDuringRebuild.add(event);}
+      else if (ready) {apply(event);}
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /* This method updates the postings for one change unless a newer one has been applied; the caller holds the write lock. */
+  private void apply(InventoryItemChangedEvent event)
+  {
+    pruneDeleted();
+    InventoryItemSnapshot current = event.current();
+    if (current == null)
+    {
+      long id = event.previous().id();
+      long updatedAt = micros(event.previous().updatedAt());
+      Integer slot = slotById.get(id);
+      if (slot != null) {updatedAt = Math.max(updatedAt, slotUpdatedAtMicros[slot]);}
+      deleted.put(id, new Deleted(updatedAt, System.nanoTime()));
+      remove(id);
+    }
+    else
+    {
+      long updatedAt = micros(current.updatedAt());
+      Integer slot = slotById.get(current.id());
+      if (slot != null && slotUpdatedAtMicros[slot] > updatedAt) {return;}
+      Deleted delete = deleted.get(current.id());
+      if (delete != null && delete.updatedAtMicros() >= updatedAt) {return;}
+      // An unchanged name keeps its postings; only the version it was last seen at moves on
+      if (slot != null && event.previous() != null && event.previous().name().equals(current.name()))
+      {
+        slotUpdatedAtMicros[slot] = updatedAt;
+        return;
+      }
+      add(current.id(), current.name(), updatedAt);
+    }
+    if (tombstones > MIN_COMPACTION_TOMBSTONES && tombstones > slotById.size()) {compact();}
+  }
+
+  private void add(long id, String name, long updatedAtMicros)
+  {
+    remove(id);
+    long[] nameTrigrams = trigrams(name);
+    if (slotCount == slotIds.length)
+    {
+      slotIds = Arrays.copyOf(slotIds, slotCount * 2);
+      slotTrigramCounts = Arrays.copyOf(slotTrigramCounts, slotCount * 2);
+      slotUpdatedAtMicros = Arrays.copyOf(slotUpdatedAtMicros, slotCount * 2);
+    }
+    int slot = slotCount++;
+    slotIds[slot] = id;
+    slotTrigramCounts[slot] = nameTrigrams.length;
+    slotUpdatedAtMicros[slot] = updatedAtMicros;
+    slotById.put(id, slot);
+    for (long trigram : nameTrigrams)
+    {
+      postings.computeIfAbsent(trigram, key -> new IntList()).add(slot);
+    }
+  }
+
+  private void remove(long id)
+  {
+    Integer slot = slotById.remove(id);
+    if (slot == null) {return;}
+    slotIds[slot] = -1;
+    tombstones++;
+  }
+
+  /* This method drops tombstoned slots, renumbering live slots in place so posting lists stay sorted. */
+  private void compact()
+  {
+    int[] remap = new int[slotCount];
+    int live = 0;
+    for (int slot = 0; slot < slotCount; slot++)
+    {
+      if (slotIds[slot] < 0) {remap[slot] = -1; continue;}
+      remap[slot] = live;
+      slotIds[live] = slotIds[slot];
+      slotTrigramCounts[live] = slotTrigramCounts[slot];
+      slotUpdatedAtMicros[live] = slotUpdatedAtMicros[slot];
+      slotById.put(slotIds[live], live);
+      live++;
+    }
+    slotCount = live;
+    tombstones = 0;
+    postings.values().removeIf(list -> list.remap(remap) == 0);
+  }
+
+  /* This method forgets deletes old enough that no late event for their item can still arrive. */
+  private void pruneDeleted()
+  {
+    long now = System.nanoTime();
+    Iterator<Deleted> oldest = deleted.values().iterator();
+    while (oldest.hasNext() && now - oldest.next().deletedAtNanos() > DELETED_RETENTION_NANOS) {oldest.remove();}
+  }
+
+  private static long micros(Instant instant) {return ChronoUnit.MICROS.between(Instant.EPOCH, instant);}
+
+  private void clear()
+  {
+    postings.clear();
+    slotById.clear();
+    deleted.clear();
+    slotCount = 0;
+    tombstones = 0;
+    ready = false;
+  }
+
+  /* This method orders matches worst first so the priority queue evicts the weakest candidate; among equal scores the lower item id ranks higher. */
+  private static int compareRank(double[] a, double[] b)
+  {
+    int byCoverage = Double.compare(a[0], b[0]);
+    if (byCoverage != 0) {return byCoverage;}
+    int bySimilarity = Double.compare(a[1], b[1]);
+    return bySimilarity != 0 ? bySimilarity : Double.compare(b[2], a[2]);
+  }
+
+  /* This method returns the distinct trigrams of a string, each packed as three 16-bit chars. */
+  static long[] trigrams(String text)
+  {
+    String normalized = text.toLowerCase(Locale.ROOT);
+    long[] result = new long[normalized.length() * 2 + 2];
+    int count = 0;
+    for (String word : normalized.split("[^\\p{L}\\p{N}]+"))
+    {
+      if (word.isEmpty()) {continue;}
+      String padded = "  " + word + " ";
+      for (int i = 0; i + 3 <= padded.length(); i++)
+      {
+        long packed = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        if (count == result.length) {result = Arrays.copyOf(result, count * 2);}
+        result[count++] = packed;
+      }
+    }
+    return Arrays.stream(result, 0, count).distinct().toArray();
+  }
+
+  /* This class walks several sorted posting lists in slot order, keeping the lists in a binary min-heap by their current slot. */
+  static final class PostingMerge
+  {
+    private final IntList[] lists;
+    private final int[] positions;
+    private int size;
+
+    PostingMerge(int capacity)
+    {
+      lists = new IntList[capacity];
+      positions = new int[capacity];
+    }
+
+    void add(IntList list)
+    {
+      if (list.size == 0) {return;}
+      lists[size] = list;
+      positions[size] = 0;
+      siftUp(size++);
+    }
+
+    boolean hasNext() {return size > 0;}
+
+    int nextSlot() {return current(0);}
+
+    /* This method moves every list positioned at the slot past it and returns how many there were. */
+    int countAndAdvance(int slot)
+    {
+      int count = 0;
+      while (size > 0 && current(0) == slot)
+      {
+        count++;
+        if (++positions[0] == lists[0].size)
+        {
+          size--;
+          lists[0] = lists[size];
+          positions[0] = positions[size];
+          lists[size] = null;
+        }
+        siftDown(0);
+      }
+      return count;
+    }
+
+    private int current(int i) {return lists[i].data[positions[i]];}
+
+    private void siftUp(int i)
+    {
+      while (i > 0)
+      {
+        int parent = (i - 1) >>> 1;
+        if (current(parent) <= current(i)) {return;}
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    private void siftDown(int i)
+    {
+      while (true)
+      {
+        int smallest = i;
+        int left = 2 * i + 1;
+        if (left < size && current(left) < current(smallest)) {smallest = left;}
+        if (left + 1 < size && current(left + 1) < current(smallest)) {smallest = left + 1;}
+        if (smallest == i) {return;}
+        swap(i, smallest);
+        i = smallest;
+      }
+    }
+
+    private void swap(int a, int b)
+    {
+      IntList list = lists[a];
+      lists[a] = lists[b];
+      lists[b] = list;
+      int position = positions[a];
+      positions[a] = positions[b];
+      positions[b] = position;
+    }
+  }
+
+  /* This class is a growable posting list of slot numbers backed by a primitive array. */
+  static final class IntList
+  {
+    private int[] data = new int[4];
+    private int size;
+
+    void add(int value)
+    {
+      if (size == data.length) {data = Arrays.copyOf(data, size * 2);}
+      data[size++] = value;
+    }
+
+    /* This method rewrites slot numbers through the remap table, dropping removed slots, and returns the new size. */
+    int remap(int[] remap)
+    {
+      int kept = 0;
+      for (int i = 0; i < size; i++)
+      {
+        int mapped = remap[data[i]];
+        if (mapped >= 0) {data[kept++] = mapped;}
+      }
+      size = kept;
+      return size;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.inventory.audit.inventory;
+
+/**
+ * Quantity ranges used for the qty facet of inventory search results.
+ * Bounds are inclusive; the last bucket is open-ended.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public enum QtyBucket 
+{
+  OUT_OF_STOCK("0", 0),
+  LOW("1-10", 10),
+  MEDIUM("11-50", 50),
+  HIGH("51-100", 100),
+  BULK("101+", Integer.MAX_VALUE);
+
+  private final String label;
+  private final int upperBound;
+
+  QtyBucket(String label, int upperBound) 
+  {
+    this.label = label;
+    this.upperBound = upperBound;
+  }
+
+  public String getLabel() { return label; }
+
+  /* This method returns a SQL CASE expression mapping qty to the bucket ordinal. */
+  static String sqlCaseExpression() 
+  {
+    StringBuilder sql = new StringBuilder("CASE");
+    QtyBucket[] buckets = values();
+    for (int i = 0; i < buckets.length - 1; i++) 
+    {
+      sql.append(" WHEN qty <= ").append(buckets[i].upperBound).append(" THEN ").append(i);
+    }
+    return sql.append(" ELSE ").append(buckets.length - 1).append(" END").toString();
+  }
+}
@@ -0,0 +1,22 @@
+package com.inventory.audit.inventory;
+
+/**
+ * Application event published by {@link LowStockService} when a reorder threshold is set or removed.
+ * Exactly one of itemId and location is set; threshold is null when the threshold was removed.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public record ReorderThresholdChangedEvent(Long itemId, String location, Integer threshold) 
+{
+
+  public static ReorderThresholdChangedEvent forItem(Long itemId, Integer threshold) 
+  {
+    return new ReorderThresholdChangedEvent(itemId, null, threshold);
+  }
+
+  public static ReorderThresholdChangedEvent forLocation(String location, Integer threshold) 
+  {
+    return new ReorderThresholdChangedEvent(null, location, threshold);
+  }
+}
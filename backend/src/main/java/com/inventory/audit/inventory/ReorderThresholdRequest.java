@@ -0,0 +1,19 @@
+package com.inventory.audit.inventory;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * Request DTO for setting an item or location reorder threshold.
+ * 
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+public class ReorderThresholdRequest 
+{
+  @NotNull 
+  @Min(0) 
+  private Integer threshold;
+  
+  public Integer getThreshold() { return threshold; }
+  public void setThreshold(Integer threshold) { this.threshold = threshold; }
+}
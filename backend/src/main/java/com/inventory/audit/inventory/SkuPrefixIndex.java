@@ -0,0 +1,376 @@
+package com.inventory.audit.inventory;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory SKU index serving prefix autocomplete without a database round trip.
+ * SKUs are kept in a sorted base array (case-insensitive order) and looked up by binary search,
+ * which costs one reference per SKU on top of the strings themselves. The index is rebuilt by
+ * streaming SKUs at startup and then kept current from committed {@link InventoryItemChangedEvent}s.
+ * The changes of one transaction are applied together once it commits, to a small sorted overlay of SKUs added
+ * to or removed from the base array, so a commit costs a few tree operations however large the index is.
+ * Lookups walk the base array and the overlay side by side. Once the overlay reaches the fold threshold, a background
+ * thread merges it into a new base array while readers and writers go on, and swaps that in under the write lock.
+ * If the table outgrows the configured limit the index disables itself and callers fall back to the database.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class SkuPrefixIndex
+{
+
+  private static final Logger log = LoggerFactory.getLogger(SkuPrefixIndex.class);
+
+  // Case-insensitive first so a prefix match is one contiguous range; natural order breaks ties between case variants
+  private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+  private final InventoryItemRepository repo;
+  private final int maxEntries;
+  private final int foldThreshold;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final ExecutorService folder;
+  private final AtomicBoolean foldScheduled = new AtomicBoolean();
+
+  // Serializes folds, which merge outside the lock
+  private final Object foldLock = new Object();
+
+  private String[] skus = new String[0];
+
+  // SKUs added to (TRUE) or removed from (FALSE) the base array since it was built; never one that agrees with it
+  private final NavigableMap<String, Boolean> overlay = new TreeMap<>(ORDER);
+  private int size;
+  private boolean ready;
+  private List<InventoryItemChangedEvent> pendingDuringRebuild;
+
+  public SkuPrefixIndex(InventoryItemRepository repo, @Value("${app.autocomplete.max-entries:2000000}") int maxEntries,
+      @Value("${app.autocomplete.fold-threshold:4096}") int foldThreshold)
+  {
+    this.repo = repo;
+    this.maxEntries = maxEntries;
+    this.foldThreshold = foldThreshold;
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sku-index-fold-");
+    threadFactory.setDaemon(true);
+    this.folder = Executors.newSingleThreadExecutor(threadFactory);
+  }
+
+  /* This method returns whether the index is loaded and can answer lookups. */
+  public boolean isReady()
+  {
+    lock.readLock().lock();
+    try {return ready;}
+    finally {lock.readLock().unlock();}
+  }
+
+  /* This method returns up to limit SKUs starting with the prefix, ignoring case, in sorted order. */
+  public List<String> suggest(String prefix, int limit)
+  {
+    lock.readLock().lock();
+    try
+    {
+      List<String> result = new ArrayList<>(Math.min(limit, 16));
+      int i = lowerBound(prefix);
+      Iterator<Map.Entry<String, Boolean>> changes = overlay.tailMap(overlayStart(prefix), true).entrySet().iterator();
+      Map.Entry<String, Boolean> change = changes.hasNext() ? changes.next() : null;
+      while (result.size() < limit)
+      {
+        String sku;
+        boolean present;
+        if (change != null && (i == skus.length || ORDER.compare(change.getKey(), skus[i]) <= 0))
+        {
+          sku = change.getKey();
+          present = change.getValue();
+          if (i < skus.length && skus[i].equals(sku)) {i++;}
+          change = changes.hasNext() ? changes.next() : null;
+        }
+        else if (i < skus.length)
+        {
+          sku = skus[i++];
+          present = true;
+        }
+        else
+        {
+          break;
+        }
+        if (!sku.regionMatches(true, 0, prefix, 0, prefix.length())) {break;}
+        if (present) {result.add(sku);}
+      }
+      return result;
+    }
+    finally
+    {
+      lock.readLock().unlock();
+    }
+  }
+
+  /* This method rebuilds the index from the database once the application has started. */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void rebuild()
+  {
+    lock.writeLock().lock();
+    try {pendingDuringRebuild = new ArrayList<>();}
+    finally {lock.writeLock().unlock();}
+
+    String[] loaded = new String[1024];
+    int count = 0;
+    boolean overflow = false;
+    try (Stream<String> stream = repo.streamAllSkus())
+    {
+      for (String sku : (Iterable<String>) stream::iterator)
+      {
+        if (count == maxEntries)
+        {
+          overflow = true;
+          break;
+        }
+        if (count == loaded.length) {loaded = Arrays.copyOf(loaded, loaded.length * 2);}
+        loaded[count++] = sku;
+      }
+    }
+    Arrays.sort(loaded, 0, count, ORDER);
+    String[] sorted = overflow ? null : Arrays.copyOf(loaded, count);
+
+    int loadedSize = -1;
+    lock.writeLock().lock();
+    try
+    {
+      List<InventoryItemChangedEvent> pending = pendingDuringRebuild;
+      pendingDuringRebuild = null;
+      if (sorted == null)
+      {
+        disable();
+        return;
+      }
+      skus = sorted;
+      overlay.clear();
+      size = sorted.length;
+      ready = true;
+      // Changes committed while loading are applied before the loaded array is published
+      apply(pending);
+      if (ready) {loadedSize = size;}
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+    if (loadedSize >= 0) {log.info("SKU autocomplete index loaded {} SKUs", loadedSize);}
+    scheduleFoldIfNeeded();
+  }
+
+  /* This method collects a change inside the writing transaction, to be applied with the transaction's other changes once it commits. */
+  @EventListener
+  public void onItemChanging(InventoryItemChangedEvent event)
+  {
+    if (!TransactionSynchronizationManager.isSynchronizationActive())
+    {
+      applyCommitted(List.of(event));
+      return;
+    }
+
+    @SuppressWarnings("unchecked")
+    List<InventoryItemChangedEvent> changes = (List<InventoryItemChangedEvent>) TransactionSynchronizationManager.getResource(this);
+    if (changes == null)
+    {
+      List<InventoryItemChangedEvent> collected = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(this, collected);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+      {
+        @Override
+        public void afterCompletion(int status)
+        {
+          TransactionSynchronizationManager.unbindResource(SkuPrefixIndex.this);
+          if (status == STATUS_COMMITTED) {applyCommitted(collected);}
+        }
+      });
+      changes = collected;
+    }
+    changes.add(event);
+  }
+
+  /* This method applies the changes of one committed transaction to the index. */
+  void applyCommitted(List<InventoryItemChangedEvent> changes)
+  {
+    lock.writeLock().lock();
+    try
+    {
+      if (pendingDuringRebuild != null)
+      {
+        pendingDuringRebuild.addAll(changes);
+        return;
+      }
+      if (!ready) {return;}
+      apply(changes);
+    }
+    finally
+    {
+      lock.writeLock().unlock();
+    }
+    scheduleFoldIfNeeded();
+  }
+
+  /* This method merges the overlay into a new base array, leaving in the overlay only changes made meanwhile. */
+  void fold()
+  {
+    synchronized (foldLock)
+    {
+      String[] base;
+      SortedMap<String, Boolean> folded;
+      lock.readLock().lock();
+      try
+      {
+        if (!ready || overlay.isEmpty()) {return;}
+        base = skus;
+        folded = new TreeMap<>(overlay);
+      }
+      finally
+      {
+        lock.readLock().unlock();
+      }
+
+      String[] merged = merge(base, folded);
+      lock.writeLock().lock();
+      try
+      {
+        // A rebuild or a disable replaced the base array meanwhile, and with it the overlay
+        if (skus != base) {return;}
+        skus = merged;
+        // A SKU changed again since the copy keeps its newer entry, which still differs from the new array
+        folded.forEach((sku, present) -> overlay.remove(sku, present));
+      }
+      finally
+      {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  /* This method returns the number of changes not yet folded into the base array. */
+  int overlaySize()
+  {
+    lock.readLock().lock();
+    try {return overlay.size();}
+    finally {lock.readLock().unlock();}
+  }
+
+  /* This method stops the fold thread on shutdown. */
+  @PreDestroy
+  public void shutdown() {folder.shutdownNow();}
+
+  /*
+   * This method applies the changes to the overlay, or disables the index when they take it past the configured limit;
+   * the caller holds the write lock. The last change to a SKU decides whether it is present.
+   */
+  private void apply(List<InventoryItemChangedEvent> changes)
+  {
+    for (InventoryItemChangedEvent event : changes)
+    {
+      String oldSku = event.previous() == null ? null : event.previous().sku();
+      String newSku = event.current() == null ? null : event.current().sku();
+      if (oldSku != null && oldSku.equals(newSku)) {continue;}
+      if (oldSku != null) {set(oldSku, false);}
+      if (newSku != null) {set(newSku, true);}
+    }
+    if (size > maxEntries) {disable();}
+  }
+
+  /* This method records whether a SKU is present, keeping in the overlay only SKUs that differ from the base array. */
+  private void set(String sku, boolean present)
+  {
+    boolean inBase = Arrays.binarySearch(skus, sku, ORDER) >= 0;
+    Boolean change = overlay.get(sku);
+    boolean was = change == null ? inBase : change;
+    if (was == present) {return;}
+    size += present ? 1 : -1;
+    if (present == inBase) {overlay.remove(sku);}
+    else {overlay.put(sku, present);}
+  }
+
+  /* This method empties the index and stops it answering lookups; the caller holds the write lock. */
+  private void disable()
+  {
+    log.warn("SKU autocomplete index disabled: more than {} SKUs (app.autocomplete.max-entries)", maxEntries);
+    skus = new String[0];
+    overlay.clear();
+    size = 0;
+    ready = false;
+  }
+
+  /* This method hands a fold to the background thread once the overlay has grown past the threshold. */
+  private void scheduleFoldIfNeeded()
+  {
+    if (overlaySize() < foldThreshold || !foldScheduled.compareAndSet(false, true)) {return;}
+    folder.execute(() ->
+    {
+      foldScheduled.set(false);
+      fold();
+    });
+  }
+
+  /* This method returns a new sorted array holding the SKUs of the given array with the overlay's changes applied. */
+  private static String[] merge(String[] current, SortedMap<String, Boolean> changes)
+  {
+    String[] merged = new String[current.length + changes.size()];
+    int count = 0;
+    int i = 0;
+    for (Map.Entry<String, Boolean> change : changes.entrySet())
+    {
+      while (i < current.length && ORDER.compare(current[i], change.getKey()) < 0) {merged[count++] = current[i++];}
+      if (i < current.length && current[i].equals(change.getKey())) {i++;}
+      if (change.getValue()) {merged[count++] = change.getKey();}
+    }
+    while (i < current.length) {merged[count++] = current[i++];}
+    return count == merged.length ? merged : Arrays.copyOf(merged, count);
+  }
+
+  /* This method returns the first overlay key that may match the prefix, including case variants ordered before it. */
+  private String overlayStart(String prefix)
+  {
+    String start = prefix;
+    for (String sku : overlay.headMap(prefix, false).descendingKeySet())
+    {
+      if (String.CASE_INSENSITIVE_ORDER.compare(sku, prefix) != 0) {break;}
+      start = sku;
+    }
+    return start;
+  }
+
+  /* This method returns the first index whose SKU is not less than the prefix, ignoring case. */
+  private int lowerBound(String prefix)
+  {
+    int low = 0;
+    int high = skus.length;
+    while (low < high)
+    {
+      int mid = (low + high) >>> 1;
+      if (String.CASE_INSENSITIVE_ORDER.compare(skus[mid], prefix) < 0) {low = mid + 1;}
+      else {high = mid;}
+    }
+    return low;
+  }
+}
@@ -0,0 +1,66 @@
+package com.inventory.audit.inventory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service writing the stale-stock aging report: every item not updated for a given number of days,
+ * oldest first, with its age and age bucket, for cycle-count planning.
+ * Rows are read through a server-side cursor and written straight to the output as they arrive,
+ * so memory use does not grow with the size of the report.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Service
+public class StaleStockReportService
+{
+
+  private final InventoryItemRepository repo;
+  private final ObjectMapper objectMapper;
+
+  public StaleStockReportService(InventoryItemRepository repo, ObjectMapper objectMapper)
+  {
+    this.repo = repo;
+    this.objectMapper = objectMapper;
+  }
+
+  /* This record is one report row. */
+  public record Row(Long id, String sku, String name, Integer qty, String location, Instant updatedAt,
+      long ageDays, String ageBucket) {}
+
+  /* This method writes the report for items older than the given number of days, optionally at one location. */
+  @Transactional(readOnly = true)
+  public void write(int olderThanDays, String location, ExportFormat format, OutputStream out) throws IOException
+  {
+    Instant now = Instant.now();
+    Instant cutoff = now.minus(olderThanDays, ChronoUnit.DAYS);
+    ExportWriter<Row> writer = new ExportWriter<>(Row.class, format, objectMapper, out);
+
+    try (Stream<InventoryItemSnapshot> stream = location == null
+        ? repo.streamUpdatedBefore(cutoff)
+        : repo.streamUpdatedBeforeByLocation(location, cutoff))
+    {
+      writer.begin();
+      Iterator<InventoryItemSnapshot> items = stream.iterator();
+      while (items.hasNext()) {writer.write(toRow(items.next(), now));}
+    }
+    writer.finish();
+  }
+
+  private static Row toRow(InventoryItemSnapshot item, Instant now)
+  {
+    long ageDays = Duration.between(item.updatedAt(), now).toDays();
+    return new Row(item.id(), item.sku(), item.name(), item.qty(), item.location(), item.updatedAt(),
+        ageDays, AgeBucket.of(ageDays).getLabel());
+  }
+}
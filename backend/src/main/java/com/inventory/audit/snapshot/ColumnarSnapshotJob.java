@@ -0,0 +1,326 @@
+package com.inventory.audit.snapshot;
+
+import com.inventory.audit.audit.AuditEventRepository;
+import com.inventory.audit.audit.AuditEventView;
+import com.inventory.audit.inventory.InventoryItemRepository;
+import com.inventory.audit.inventory.InventoryItemSnapshot;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Scheduled job writing columnar snapshots of inventory_items and audit_events as Arrow IPC files
+ * for offline analytics. Each table is streamed through a server-side cursor into fixed-size record
+ * batches, so memory use does not depend on table size. Low-cardinality strings (location, eventType,
+ * entityType, userId) are dictionary-encoded. Both tables are read in one repeatable-read transaction,
+ * so the two files describe the same moment. Files are written under a temporary name and renamed when
+ * complete, and only the newest few snapshots of each table are kept.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+@Component
+public class ColumnarSnapshotJob
+{
+
+  private static final Logger log = LoggerFactory.getLogger(ColumnarSnapshotJob.class);
+  private static final int BATCH_ROWS = 64 * 1024;
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+  private static final ArrowType TIMESTAMP = new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+
+  private final InventoryItemRepository inventoryRepo;
+  private final AuditEventRepository auditRepo;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate snapshotTransaction;
+  private final boolean enabled;
+  private final Path directory;
+  private final int retain;
+
+  public ColumnarSnapshotJob(InventoryItemRepository inventoryRepo, AuditEventRepository auditRepo,
+      JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+      @Value("${app.columnar-snapshot.enabled:false}") boolean enabled,
+      @Value("${app.columnar-snapshot.directory:snapshots}") String directory,
+      @Value("${app.columnar-snapshot.retain:7}") int retain)
+  {
+    this.inventoryRepo = inventoryRepo;
+    this.auditRepo = auditRepo;
+    this.jdbcTemplate = jdbcTemplate;
+    this.snapshotTransaction = new TransactionTemplate(transactionManager);
+    this.snapshotTransaction.setReadOnly(true);
+    this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    this.enabled = enabled;
+    this.directory = Paths.get(directory);
+    this.retain = retain;
+  }
+
+  /* This method writes a snapshot of both tables on the configured schedule. */
+  @Scheduled(cron = "${app.columnar-snapshot.cron:0 0 2 * * *}")
+  public void run()
+  {
+    if (!enabled) {return;}
+    try
+    {
+      writeSnapshots(Instant.now());
+    }
+    catch (IOException | UncheckedIOException | IllegalStateException e)
+    {
+      log.error("Columnar snapshot failed", e);
+    }
+  }
+
+  /* This method writes one snapshot of each table stamped with the given time and prunes old ones. */
+  public void writeSnapshots(Instant at) throws IOException
+  {
+    Files.createDirectories(directory);
+    String stamp = FILE_TIMESTAMP.format(at);
+    Path inventoryFile = directory.resolve("inventory_items-" + stamp + ".arrow");
+    Path auditFile = directory.resolve("audit_events-" + stamp + ".arrow");
+
+    snapshotTransaction.executeWithoutResult(status ->
+    {
+      try
+      {
+        publish(inventoryFile, this::writeInventory);
+        publish(auditFile, this::writeAuditEvents);
+      }
+      catch (IOException e)
+      {
+        throw new UncheckedIOException(e);
+      }
+    });
+    prune("inventory_items-");
+    prune("audit_events-");
+  }
+
+  /* This interface writes one table to an open file channel and returns the number of rows. */
+  @FunctionalInterface
+  private interface TableWriter
+  {
+    long write(FileChannel channel) throws IOException;
+  }
+
+  /* This method writes a table to a temporary file and renames it into place once complete. */
+  private void publish(Path file, TableWriter tableWriter) throws IOException
+  {
+    long started = System.nanoTime();
+    Path partial = file.resolveSibling(file.getFileName() + ".part");
+    long rows;
+    try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+        StandardOpenOption.WRITE))
+    {
+      rows = tableWriter.write(channel);
+    }
+    catch (IOException | RuntimeException e)
+    {
+      Files.deleteIfExists(partial);
+      throw e;
+    }
+    Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+    log.info("Wrote {} ({} rows, {} KB) in {} ms", file.getFileName(), rows, Files.size(file) / 1024,
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  private long writeInventory(FileChannel channel) throws IOException
+  {
+    List<String> locations = distinct("SELECT DISTINCT location FROM inventory_items WHERE location IS NOT NULL");
+    try (BufferAllocator allocator = new RootAllocator();
+         DictionaryColumn location = new DictionaryColumn("location", 1L, locations, allocator))
+    {
+      Schema schema = new Schema(List.of(
+          Field.notNullable("id", new ArrowType.Int(64, true)),
+          Field.nullable("sku", ArrowType.Utf8.INSTANCE),
+          Field.nullable("name", ArrowType.Utf8.INSTANCE),
+          Field.nullable("qty", new ArrowType.Int(32, true)),
+          location.field(),
+          Field.nullable("updated_at", TIMESTAMP)));
+      try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+           ArrowFileWriter writer = new ArrowFileWriter(root,
+               new DictionaryProvider.MapDictionaryProvider(location.dictionary()), channel);
+           Stream<InventoryItemSnapshot> stream = inventoryRepo.streamAllSnapshots())
+      {
+        BigIntVector id = (BigIntVector) root.getVector("id");
+        VarCharVector sku = (VarCharVector) root.getVector("sku");
+        VarCharVector name = (VarCharVector) root.getVector("name");
+        IntVector qty = (IntVector) root.getVector("qty");
+        IntVector locationIndex = (IntVector) root.getVector("location");
+        TimeStampMicroTZVector updatedAt = (TimeStampMicroTZVector) root.getVector("updated_at");
+
+        Batches batches = new Batches(root, writer);
+        Iterator<InventoryItemSnapshot> items = stream.iterator();
+        while (items.hasNext())
+        {
+          InventoryItemSnapshot item = items.next();
+          int row = batches.row();
+          id.setSafe(row, item.id());
+          setString(sku, row, item.sku());
+          setString(name, row, item.name());
+          if (item.qty() == null) {qty.setNull(row);} else {qty.setSafe(row, item.qty());}
+          location.set(locationIndex, row, item.location());
+          setTimestamp(updatedAt, row, item.updatedAt());
+          batches.next();
+        }
+        return batches.finish();
+      }
+    }
+  }
+
+  private long writeAuditEvents(FileChannel channel) throws IOException
+  {
+    List<String> eventTypes = distinct("SELECT DISTINCT event_type FROM audit_events");
+    List<String> entityTypes = distinct("SELECT DISTINCT entity_type FROM audit_events");
+    List<String> userIds = distinct("SELECT DISTINCT user_id FROM audit_events WHERE user_id IS NOT NULL");
+    try (BufferAllocator allocator = new RootAllocator();
+         DictionaryColumn eventType = new DictionaryColumn("event_type", 1L, eventTypes, allocator);
+         DictionaryColumn entityType = new DictionaryColumn("entity_type", 2L, entityTypes, allocator);
+         DictionaryColumn userId = new DictionaryColumn("user_id", 3L, userIds, allocator))
+    {
+      Schema schema = new Schema(List.of(
+          Field.notNullable("id", new ArrowType.Int(64, true)),
+          eventType.field(),
+          entityType.field(),
+          Field.nullable("entity_id", new ArrowType.Int(64, true)),
+          userId.field(),
+          Field.nullable("details", ArrowType.Utf8.INSTANCE),
+          Field.nullable("timestamp", TIMESTAMP)));
+      DictionaryProvider dictionaries = new DictionaryProvider.MapDictionaryProvider(
+          eventType.dictionary(), entityType.dictionary(), userId.dictionary());
+      try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+           ArrowFileWriter writer = new ArrowFileWriter(root, dictionaries, channel);
+           Stream<AuditEventView> stream = auditRepo.streamAllViews())
+      {
+        BigIntVector id = (BigIntVector) root.getVector("id");
+        IntVector eventTypeIndex = (IntVector) root.getVector("event_type");
+        IntVector entityTypeIndex = (IntVector) root.getVector("entity_type");
+        BigIntVector entityId = (BigIntVector) root.getVector("entity_id");
+        IntVector userIdIndex = (IntVector) root.getVector("user_id");
+        VarCharVector details = (VarCharVector) root.getVector("details");
+        TimeStampMicroTZVector timestamp = (TimeStampMicroTZVector) root.getVector("timestamp");
+
+        Batches batches = new Batches(root, writer);
+        Iterator<AuditEventView> events = stream.iterator();
+        while (events.hasNext())
+        {
+          AuditEventView event = events.next();
+          int row = batches.row();
+          id.setSafe(row, event.id());
+          eventType.set(eventTypeIndex, row, event.eventType());
+          entityType.set(entityTypeIndex, row, event.entityType());
+          if (event.entityId() == null) {entityId.setNull(row);} else {entityId.setSafe(row, event.entityId());}
+          userId.set(userIdIndex, row, event.userId());
+          setString(details, row, event.details());
+          setTimestamp(timestamp, row, event.timestamp());
+          batches.next();
+        }
+        return batches.finish();
+      }
+    }
+  }
+
+  private List<String> distinct(String sql)
+  {
+    return jdbcTemplate.queryForList(sql, String.class);
+  }
+
+  /* This method deletes all but the newest snapshots of one table; file names sort by time. */
+  private void prune(String prefix) throws IOException
+  {
+    try (Stream<Path> files = Files.list(directory))
+    {
+      List<Path> snapshots = files
+          .filter(path -> path.getFileName().toString().startsWith(prefix) && path.getFileName().toString().endsWith(".arrow"))
+          .sorted()
+          .toList();
+      for (int i = 0; i < snapshots.size() - retain; i++) {Files.deleteIfExists(snapshots.get(i));}
+    }
+  }
+
+  private static void setString(VarCharVector vector, int row, String value)
+  {
+    if (value == null) {vector.setNull(row);}
+    else {vector.setSafe(row, value.getBytes(StandardCharsets.UTF_8));}
+  }
+
+  private static void setTimestamp(TimeStampMicroTZVector vector, int row, Instant value)
+  {
+    if (value == null) {vector.setNull(row);}
+    else {vector.setSafe(row, ChronoUnit.MICROS.between(Instant.EPOCH, value));}
+  }
+
+  /* This class fills the vectors of a schema root row by row and writes a record batch whenever it is full. */
+  private static final class Batches
+  {
+    private final VectorSchemaRoot root;
+    private final ArrowFileWriter writer;
+    private int row;
+    private long total;
+
+    Batches(VectorSchemaRoot root, ArrowFileWriter writer) throws IOException
+    {
+      this.root = root;
+      this.writer = writer;
+      writer.start();
+      root.allocateNew();
+    }
+
+    int row() { return row; }
+
+    void next() throws IOException
+    {
+      total++;
+      if (++row == BATCH_ROWS) {flush();}
+    }
+
+    /* This method writes the last, partial batch and the file footer, and returns the number of rows written. */
+    long finish() throws IOException
+    {
+      if (row > 0 || total == 0) {flush();}
+      writer.end();
+      return total;
+    }
+
+    private void flush() throws IOException
+    {
+      root.setRowCount(row);
+      writer.writeBatch();
+      root.allocateNew();
+      row = 0;
+    }
+  }
+}
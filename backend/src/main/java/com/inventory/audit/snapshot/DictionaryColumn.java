@@ -0,0 +1,76 @@
+package com.inventory.audit.snapshot;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dictionary-encoded string column of an Arrow snapshot. The distinct values are known before any
+ * row is written, because the Arrow file format stores each dictionary once, ahead of the record batches;
+ * rows then carry only an int index into it.
+ *
+ * @author Victor Tiradoegas
+ * @version 1.0
+ */
+final class DictionaryColumn implements AutoCloseable
+{
+
+  private static final ArrowType.Int INDEX_TYPE = new ArrowType.Int(32, true);
+
+  private final String name;
+  private final Map<String, Integer> indexes;
+  private final VarCharVector values;
+  private final Dictionary dictionary;
+
+  DictionaryColumn(String name, long id, List<String> distinctValues, BufferAllocator allocator)
+  {
+    this.name = name;
+    this.indexes = new HashMap<>(distinctValues.size() * 2);
+    this.values = new VarCharVector(name + "_dictionary", allocator);
+    values.allocateNew(distinctValues.size());
+    for (int i = 0; i < distinctValues.size(); i++)
+    {
+      values.setSafe(i, distinctValues.get(i).getBytes(StandardCharsets.UTF_8));
+      indexes.put(distinctValues.get(i), i);
+    }
+    values.setValueCount(distinctValues.size());
+    this.dictionary = new Dictionary(values, new DictionaryEncoding(id, false, INDEX_TYPE));
+  }
+
+  /* This method returns the schema field, whose in-memory type is the index type. */
+  Field field()
+  {
+    return new Field(name, new FieldType(true, INDEX_TYPE, dictionary.getEncoding()), null);
+  }
+
+  Dictionary dictionary() { return dictionary; }
+
+  /* This method writes the index of the value at the given row, or null. */
+  void set(IntVector vector, int row, String value)
+  {
+    if (value == null)
+    {
+      vector.setNull(row);
+      return;
+    }
+    Integer index = indexes.get(value);
+    if (index == null) {throw new IllegalStateException("Value missing from the " + name + " dictionary: " + value);}
+    vector.setSafe(row, index);
+  }
+
+  @Override
+  public void close()
+  {
+    values.close();
+  }
+}
@@ -0,0 +1,35 @@
+-- Change tracking for the delta-sync feed (GET /api/inventory/changes).
+-- Every insert or update of an item stamps it with the next value of a shared sequence and with the id of
+-- the writing transaction; deletes leave a tombstone stamped the same way. The sequence orders the feed,
+-- while the transaction id tells the reader which changes can no longer be preceded by an uncommitted one.
+
+CREATE SEQUENCE IF NOT EXISTS inventory_change_seq;
+
+-- The columns are added without a default, which changes only the catalog; existing rows are stamped in
+-- batches by V10_1, after the trigger below already stamps every new write.
+ALTER TABLE inventory_items ADD COLUMN IF NOT EXISTS change_seq BIGINT;
+ALTER TABLE inventory_items ADD COLUMN IF NOT EXISTS change_txid XID8;
+
+CREATE OR REPLACE FUNCTION stamp_inventory_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := nextval('inventory_change_seq');
+    NEW.change_txid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS inventory_items_stamp_change ON inventory_items;
+CREATE TRIGGER inventory_items_stamp_change
+    BEFORE INSERT OR UPDATE ON inventory_items
+    FOR EACH ROW EXECUTE FUNCTION stamp_inventory_change();
+
+CREATE TABLE IF NOT EXISTS inventory_tombstones (
+    item_id BIGINT PRIMARY KEY,
+    sku VARCHAR(255) NOT NULL,
+    change_seq BIGINT NOT NULL DEFAULT nextval('inventory_change_seq'),
+    change_txid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_tombstones_change_seq ON inventory_tombstones(change_seq);
+CREATE INDEX IF NOT EXISTS idx_inventory_tombstones_deleted_at ON inventory_tombstones(deleted_at);
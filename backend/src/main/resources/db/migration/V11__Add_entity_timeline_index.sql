@@ -0,0 +1,14 @@
+-- Index for an entity's audit history ordered newest first (GET /api/inventory/{id}/timeline).
+-- Equality on (entity_type, entity_id) followed by (timestamp, id) serves both the first page and every
+-- keyset page as one index range scan with no sort step, however many events the entity has.
+-- event_type and user_id are included so the index alone answers most of the row; details (TEXT) is left out
+-- because a long value would exceed the index row size limit.
+-- It replaces idx_entity_type_id, which is a prefix of it.
+-- Built and dropped CONCURRENTLY outside a transaction (see the .conf file) so audit inserts, and with them inventory
+-- writes, go on meanwhile; the new index is dropped first so that a rerun replaces an invalid one left by a failed build.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_entity_timeline;
+CREATE INDEX CONCURRENTLY idx_entity_timeline
+    ON audit_events(entity_type, entity_id, timestamp DESC, id DESC) INCLUDE (event_type, user_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_entity_type_id;
@@ -0,0 +1,10 @@
+-- Index the change feed's selective predicate. Each sync round starts at a transaction id watermark with
+-- change_seq > 0, so change_txid is what narrows the scan to the rows written since the client's last round;
+-- change_seq follows so the matching entries are read without visiting the heap for the seq filter.
+-- Built CONCURRENTLY outside a transaction (see the .conf file) so writes go on during the build.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_inventory_items_change_txid;
+CREATE INDEX CONCURRENTLY idx_inventory_items_change_txid ON inventory_items(change_txid, change_seq);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_inventory_tombstones_change_txid;
+CREATE INDEX CONCURRENTLY idx_inventory_tombstones_change_txid ON inventory_tombstones(change_txid, change_seq);
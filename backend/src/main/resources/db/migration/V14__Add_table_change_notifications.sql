@@ -0,0 +1,32 @@
+-- Table change notifications for list and summary ETags (see ChangeVersion and TableChangeListener).
+-- A statement-level trigger sends the table name on the table_changes channel. PostgreSQL delivers it to the
+-- listening instances only once the writing transaction commits. Every transaction that notified takes the global
+-- notification queue lock while it commits, so notifying commits are serialized for that moment. To keep that cost
+-- to what the ETags need, each transaction notifies at most once per table, and only while a listener session is
+-- connected to this database. Writers see the listener in pg_stat_activity only if they run as the application's
+-- role or hold pg_read_all_stats; other roles never notify. Deletes fire the trigger on inventory_items itself,
+-- so tombstones need none.
+
+CREATE OR REPLACE FUNCTION notify_table_change() RETURNS trigger AS $$
+BEGIN
+    -- Transaction-local flag, so later statements of the same transaction skip the check and the notification
+    IF current_setting('table_changes.' || TG_TABLE_NAME, true) IS DISTINCT FROM 'sent' THEN
+        PERFORM set_config('table_changes.' || TG_TABLE_NAME, 'sent', true);
+        IF EXISTS (SELECT 1 FROM pg_stat_activity
+                   WHERE application_name = 'table-change-listener' AND datname = current_database()) THEN
+            PERFORM pg_notify('table_changes', TG_TABLE_NAME);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS inventory_items_notify_change ON inventory_items;
+CREATE TRIGGER inventory_items_notify_change
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON inventory_items
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
+
+DROP TRIGGER IF EXISTS audit_events_notify_change ON audit_events;
+CREATE TRIGGER audit_events_notify_change
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON audit_events
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_table_change();
@@ -0,0 +1,16 @@
+-- Extend the updated_at indexes with id so keyset (cursor) pagination ordered by
+-- (updated_at, id) is served by a single index range scan without a sort step.
+-- The extended indexes are built CONCURRENTLY under new names, so writes to inventory_items go on during the
+-- build and updated_at reads keep the old indexes until the new ones are in place; only then are the old ones
+-- dropped. CONCURRENTLY cannot run inside a transaction, so this migration runs without one (see the .conf file).
+-- Each new index is dropped first: a concurrent build that fails leaves an invalid index behind, which a rerun
+-- must rebuild rather than skip.
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_updated_at_id;
+CREATE INDEX CONCURRENTLY idx_updated_at_id ON inventory_items(updated_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_location_updated_id;
+CREATE INDEX CONCURRENTLY idx_location_updated_id ON inventory_items(location, updated_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_updated_at;
+DROP INDEX CONCURRENTLY IF EXISTS idx_location_updated;
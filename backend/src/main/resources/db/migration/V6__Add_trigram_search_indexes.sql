@@ -0,0 +1,11 @@
+-- Enable trigram matching so substring searches (LIKE '%pattern%') can use an index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Expression indexes match the lower(column) LIKE predicates issued by the search queries.
+-- Built CONCURRENTLY outside a transaction (see the .conf file) so writes go on during the GIN builds; each index
+-- is dropped first so that a rerun after a failed build replaces the invalid index it left.
+DROP INDEX CONCURRENTLY IF EXISTS idx_sku_trgm;
+CREATE INDEX CONCURRENTLY idx_sku_trgm ON inventory_items USING gin (lower(sku) gin_trgm_ops);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_name_trgm;
+CREATE INDEX CONCURRENTLY idx_name_trgm ON inventory_items USING gin (lower(name) gin_trgm_ops);
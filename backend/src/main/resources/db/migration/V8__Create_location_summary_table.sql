@@ -0,0 +1,16 @@
+-- Per-location item count and total quantity, served by GET /api/inventory/summary/location
+-- instead of a GROUP BY over inventory_items on every call.
+-- The application applies each inventory write's delta in the same transaction as the write,
+-- and a periodic job reconciles the table against inventory_items.
+
+CREATE TABLE IF NOT EXISTS location_summary (
+    location VARCHAR(255) PRIMARY KEY,
+    item_count BIGINT NOT NULL,
+    total_qty BIGINT NOT NULL
+);
+
+INSERT INTO location_summary (location, item_count, total_qty)
+SELECT location, COUNT(*), COALESCE(SUM(qty), 0)
+FROM inventory_items
+GROUP BY location
+ON CONFLICT (location) DO NOTHING;
@@ -0,0 +1,12 @@
+-- Reorder thresholds for the low-stock view. An item is low on stock when its qty is below its own
+-- threshold or, when it has none, below the threshold of its location.
+
+CREATE TABLE IF NOT EXISTS item_reorder_thresholds (
+    item_id BIGINT PRIMARY KEY REFERENCES inventory_items(id) ON DELETE CASCADE,
+    threshold INTEGER NOT NULL CHECK (threshold >= 0)
+);
+
+CREATE TABLE IF NOT EXISTS location_reorder_thresholds (
+    location VARCHAR(255) PRIMARY KEY,
+    threshold INTEGER NOT NULL CHECK (threshold >= 0)
+);
@@ -0,0 +1,71 @@
+package com.inventory.audit.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ChangeVersionTest {
+
+	private final ChangeVersion inventory = new ChangeVersion("inventory_items") {};
+	private final ChangeVersion audit = new ChangeVersion("audit_events") {};
+	private final TableChangeListener listener = new TableChangeListener(null, List.of(inventory, audit), 0);
+
+	@BeforeEach
+	void setUp() {
+		inventory.tracking();
+		audit.tracking();
+	}
+
+	@Test
+	void writeToAnotherTableLeavesTheEtagUnchanged() {
+		String etag = inventory.etag("application/json");
+		long generation = inventory.latest();
+
+		listener.dispatch("audit_events");
+		listener.dispatch("location_summary");
+
+		assertEquals(etag, inventory.etag("application/json"));
+		assertEquals(generation, inventory.latest());
+		assertNotEquals(etag, inventory.etag("application/cbor"), "variants are tagged apart");
+	}
+
+	@Test
+	void writeToTheTableChangesTheEtag() {
+		String etag = inventory.etag("application/json");
+		long generation = inventory.latest();
+
+		listener.dispatch("inventory_items");
+
+		assertNotEquals(etag, inventory.etag("application/json"));
+		assertTrue(inventory.latest() > generation);
+	}
+
+	@Test
+	void untrackedVersionHasNoEtagAndNeverRepeatsAGeneration() {
+		String etag = inventory.etag(null);
+		inventory.untracked();
+
+		assertNull(inventory.etag(null));
+		long first = inventory.latest();
+		assertNotEquals(first, inventory.latest(), "reads while untracked share nothing");
+
+		inventory.tracking();
+		assertNotNull(inventory.etag(null));
+		assertNotEquals(etag, inventory.etag(null), "tags from before the gap no longer match");
+	}
+
+	@Test
+	void instancesNeverShareTags() {
+		ChangeVersion other = new ChangeVersion("inventory_items") {};
+		other.tracking();
+
+		assertEquals(inventory.latest(), other.latest());
+		assertNotEquals(inventory.etag(null), other.etag(null));
+	}
+}
@@ -0,0 +1,128 @@
+package com.inventory.audit.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class EventBroadcasterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final Counter stalls = meterRegistry.counter("sse.stalls");
+	private final SenderPool sender = new SenderPool(1, 1, task -> {
+		Thread thread = new Thread(task);
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final EventBroadcaster<String> broadcaster =
+			new EventBroadcaster<>("test", 16, 60_000, sender, meterRegistry.counter("sse.overflows"), stalls);
+	private final CountDownLatch releaseStalled = new CountDownLatch(1);
+
+	@AfterEach
+	void tearDown() {
+		releaseStalled.countDown();
+		sender.shutdown();
+	}
+
+	@Test
+	void stalledSubscriberIsDroppedSoOthersKeepReceiving() throws Exception {
+		CountDownLatch stalledWriteStarted = new CountDownLatch(1);
+		broadcaster.subscribe(event -> true, new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) {
+				// A client that stopped reading: the write blocks until the test ends
+				stalledWriteStarted.countDown();
+				awaitUninterruptibly(releaseStalled);
+			}
+		});
+		assertTrue(stalledWriteStarted.await(5, TimeUnit.SECONDS));
+
+		BlockingQueue<SseEmitter.SseEventBuilder> received = new LinkedBlockingQueue<>();
+		broadcaster.subscribe(event -> true, new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) {
+				received.add(builder);
+			}
+		});
+		broadcaster.publish("change");
+
+		// The only sender thread is held by the stalled write
+		assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+		broadcaster.dropStalled(TimeUnit.SECONDS.toNanos(10));
+		assertEquals(0, stalls.count());
+
+		broadcaster.dropStalled(TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals(1, stalls.count());
+		assertEquals(1, broadcaster.subscriberCount());
+		assertNotNull(received.poll(5, TimeUnit.SECONDS), "keep-alive");
+		assertNotNull(received.poll(5, TimeUnit.SECONDS), "event");
+	}
+
+	@Test
+	void stalledSubscribersPastTheCapAreDroppedWithoutGrowingThePool() throws Exception {
+		CountDownLatch firstStalled = new CountDownLatch(1);
+		CountDownLatch secondStalled = new CountDownLatch(1);
+		BlockingQueue<Throwable> completedWithError = new LinkedBlockingQueue<>();
+		broadcaster.subscribe(event -> true, stallingEmitter(firstStalled, completedWithError));
+		assertTrue(firstStalled.await(5, TimeUnit.SECONDS));
+		broadcaster.dropStalled(TimeUnit.MILLISECONDS.toNanos(0));
+
+		// The replacement thread stalls too, and the cap of one leaves it unreplaced
+		broadcaster.subscribe(event -> true, stallingEmitter(secondStalled, completedWithError));
+		assertTrue(secondStalled.await(5, TimeUnit.SECONDS));
+		broadcaster.dropStalled(TimeUnit.MILLISECONDS.toNanos(0));
+		assertEquals(2, stalls.count());
+		assertEquals(0, broadcaster.subscriberCount());
+
+		// Both streams end with an error once their writes return, and the pool serves again at its own size
+		releaseStalled.countDown();
+		assertNotNull(completedWithError.poll(5, TimeUnit.SECONDS));
+		assertNotNull(completedWithError.poll(5, TimeUnit.SECONDS));
+		BlockingQueue<SseEmitter.SseEventBuilder> received = new LinkedBlockingQueue<>();
+		broadcaster.subscribe(event -> true, new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) {
+				received.add(builder);
+			}
+		});
+		assertNotNull(received.poll(5, TimeUnit.SECONDS), "keep-alive");
+	}
+
+	private SseEmitter stallingEmitter(CountDownLatch writeStarted, BlockingQueue<Throwable> completedWithError) {
+		return new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) {
+				writeStarted.countDown();
+				awaitUninterruptibly(releaseStalled);
+			}
+
+			@Override
+			public void completeWithError(Throwable ex) {
+				completedWithError.add(ex);
+			}
+		};
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		while (true) {
+			try {
+				latch.await();
+				return;
+			}
+			catch (InterruptedException e) {
+				// keep blocking like a socket write
+			}
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.inventory.audit.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+	@Test
+	void decodesWhatItEncodes() {
+		KeysetCursor cursor = new KeysetCursor(Instant.parse("2024-01-01T12:05:00.123456789Z"), Long.MAX_VALUE);
+
+		String token = cursor.encode();
+
+		assertTrue(token.matches("[A-Za-z0-9_-]+"), "URL-safe without padding");
+		assertEquals(cursor, KeysetCursor.decode(token));
+	}
+
+	@Test
+	void emptyCursorMeansFirstPage() {
+		assertNull(KeysetCursor.decode(null));
+		assertNull(KeysetCursor.decode(""));
+		assertNull(KeysetCursor.decode("   "));
+	}
+
+	@Test
+	void oversizedCursorIsRejected() {
+		String token = new KeysetCursor(Instant.EPOCH, 1).encode() + "A".repeat(200);
+
+		assertThrows(BadRequestException.class, () -> KeysetCursor.decode(token));
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not base64!"));
+		assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("2024-01-01T00:00:00Z")));
+		assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode(",42")));
+		assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("yesterday,42")));
+		assertThrows(BadRequestException.class, () -> KeysetCursor.decode(encode("2024-01-01T00:00:00Z,x")));
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.inventory.audit.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final Counter executed = meterRegistry.counter("executed");
+	private final Counter collapsed = meterRegistry.counter("collapsed");
+	private final SingleFlight<String, Integer> flight = new SingleFlight<>(executed, collapsed);
+	private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() {
+		callers.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+
+		Future<Integer> first = callers.submit(() -> flight.execute("key", () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return 42;
+		}));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		Future<Integer> second = callers.submit(() -> flight.execute("key", () -> loads.incrementAndGet()));
+		Future<Integer> other = callers.submit(() -> flight.execute("other", () -> 7));
+		assertEquals(7, other.get(5, TimeUnit.SECONDS), "other keys are not held up");
+		waitForCollapsed(1);
+		release.countDown();
+
+		assertEquals(42, first.get(5, TimeUnit.SECONDS));
+		assertEquals(42, second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loads.get());
+		assertEquals(2, executed.count());
+	}
+
+	@Test
+	void waitingCallersGetTheLoadersException() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		IllegalStateException failure = new IllegalStateException("database down");
+
+		Future<Integer> first = callers.submit(() -> flight.execute("key", () -> {
+			loading.countDown();
+			await(release);
+			throw failure;
+		}));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+		Future<Integer> second = callers.submit(() -> flight.execute("key", () -> 0));
+		waitForCollapsed(1);
+		release.countDown();
+
+		assertSame(failure, assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS)).getCause());
+		assertSame(failure, assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS)).getCause());
+	}
+
+	@Test
+	void nothingIsKeptOnceACallCompletes() {
+		assertEquals(1, flight.execute("key", () -> 1));
+		assertEquals(2, flight.execute("key", () -> 2));
+		assertThrows(IllegalStateException.class, () -> flight.execute("key", () -> {
+			throw new IllegalStateException();
+		}));
+		assertEquals(3, flight.execute("key", () -> 3));
+		assertEquals(4, executed.count());
+		assertEquals(0, collapsed.count());
+	}
+
+	private void waitForCollapsed(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (collapsed.count() < count && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertEquals(count, collapsed.count());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
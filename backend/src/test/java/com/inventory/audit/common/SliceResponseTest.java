@@ -0,0 +1,59 @@
+package com.inventory.audit.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+class SliceResponseTest {
+
+	@Test
+	void lastPageReportsTheExactTotalOverTheEstimate() {
+		SliceResponse<String> response = SliceResponse.of(
+				new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 10), false), 500L);
+
+		assertFalse(response.hasNext());
+		assertEquals(32L, response.totalEstimate());
+	}
+
+	@Test
+	void estimateNeverUndercountsRowsAlreadySeen() {
+		SliceResponse<String> response = SliceResponse.of(
+				new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 2), true), 5L);
+
+		assertTrue(response.hasNext());
+		assertEquals(9L, response.totalEstimate());
+	}
+
+	@Test
+	void estimateIsKeptWhileItCoversTheRowsSeen() {
+		SliceResponse<String> response = SliceResponse.of(
+				new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true), 1000L);
+
+		assertEquals(1000L, response.totalEstimate());
+		assertEquals(0, response.page());
+		assertEquals(2, response.size());
+		assertEquals(List.of("a", "b"), response.content());
+	}
+
+	@Test
+	void noEstimateRequestedStaysNullEvenOnTheLastPage() {
+		assertNull(SliceResponse.of(new SliceImpl<>(List.of("a"), PageRequest.of(0, 10), false), null).totalEstimate());
+		assertNull(SliceResponse.of(new SliceImpl<>(List.of("a"), PageRequest.of(0, 1), true), null).totalEstimate());
+	}
+
+	@Test
+	void unpagedSliceCountsOnlyItsOwnRows() {
+		SliceResponse<String> response = SliceResponse.of(
+				new SliceImpl<>(List.of("a", "b", "c"), Pageable.unpaged(), false), 10L);
+
+		assertEquals(3L, response.totalEstimate());
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.inventory.audit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.inventory.audit.common.BadRequestException;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class ChangeTokenTest {
+
+	private static final Instant T0 = Instant.ofEpochMilli(1_700_000_000_000L);
+	private static final Instant T1 = Instant.ofEpochMilli(1_700_000_005_000L);
+
+	@Test
+	void roundTripsThroughEncode() {
+		ChangeToken notStarted = ChangeToken.initial(T0);
+		ChangeToken midRound = notStarted.startRound(812, T1).after(150_000);
+
+		assertEquals(notStarted, ChangeToken.decode(notStarted.encode()));
+		assertEquals(midRound, ChangeToken.decode(midRound.encode()));
+		assertTrue(midRound.encode().matches("[A-Za-z0-9_-]+"), "URL-safe without padding");
+	}
+
+	@Test
+	void roundsAdvanceToTheRecordedHorizon() {
+		ChangeToken round = ChangeToken.initial(T0).startRound(812, T1);
+		assertTrue(round.roundStarted());
+
+		ChangeToken resumed = round.after(42);
+		assertEquals(0, resumed.fromTxid(), "a page within a round keeps its start");
+		assertEquals(42, resumed.afterSeq());
+
+		ChangeToken next = resumed.nextRound();
+		assertEquals(812, next.fromTxid());
+		assertEquals(T1, next.fromTime());
+		assertEquals(0, next.afterSeq());
+		assertFalse(next.roundStarted());
+	}
+
+	@Test
+	void tokensIssuedBeforeTheBackfillStillResume() {
+		// Issued before the V10_1 backfill ran; rows it stamps get later transaction ids and sequence values,
+		// so resuming here (change_txid >= 0, change_seq > 150000) re-sends them rather than skipping them
+		ChangeToken midRound = ChangeToken.decode("MDoxNzAwMDAwMDAwMDAwOjgxMjoxNzAwMDAwMDA1MDAwOjE1MDAwMA");
+		assertEquals(new ChangeToken(0, T0, 812, T1, 150_000), midRound);
+
+		ChangeToken notStarted = ChangeToken.decode("MDoxNzAwMDAwMDAwMDAwOjA6MDow");
+		assertEquals(ChangeToken.initial(T0), notStarted);
+		assertNull(notStarted.nextTime());
+		assertFalse(notStarted.roundStarted());
+	}
+
+	@Test
+	void blankTokenStartsAFullSync() {
+		assertNull(ChangeToken.decode(null));
+		assertNull(ChangeToken.decode(""));
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		assertThrows(BadRequestException.class, () -> ChangeToken.decode("not base64!"));
+		assertThrows(BadRequestException.class, () -> ChangeToken.decode("MDoxOjI"));
+		assertThrows(BadRequestException.class, () -> ChangeToken.decode("eDoxOjI6Mzo0"));
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.inventory.audit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class InventoryItemMissesTest {
+
+	private final InventoryItemMisses misses = new InventoryItemMisses(Caffeine.newBuilder().build());
+
+	@Test
+	void remembersMissesOfALookupNoChangeOverlapped() {
+		long stamp = misses.stamp();
+		misses.remember(List.of(1L, "sku:A-1"), stamp);
+
+		assertTrue(misses.contains(1L));
+		assertEquals(Set.of("sku:A-1"), misses.containing(List.of("sku:A-1", "sku:B-1")));
+	}
+
+	@Test
+	void dropsAMissWhenTheKeyWasClearedDuringTheLookup() {
+		long stamp = misses.stamp();
+		// The creating commit clears the key after the lookup queried and before it stores its miss
+		misses.forget(List.of("sku:A-1"));
+		misses.remember(List.of("sku:A-1"), stamp);
+
+		assertFalse(misses.contains("sku:A-1"));
+	}
+
+	@Test
+	void clearingAfterTheMissIsStoredRemovesIt() {
+		long stamp = misses.stamp();
+		misses.remember(List.of("sku:A-1"), stamp);
+		misses.forget(List.of("sku:A-1"));
+
+		assertFalse(misses.contains("sku:A-1"));
+		misses.remember(List.of("sku:A-1"), misses.stamp());
+		assertTrue(misses.contains("sku:A-1"), "a lookup started after the change remembers its miss");
+	}
+}
@@ -0,0 +1,34 @@
+package com.inventory.audit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class InventoryItemSpecificationsTest {
+
+	@Test
+	void containsPatternIsLowerCasedAndWrapped() {
+		assertEquals("%abc-12%", InventoryItemSpecifications.containsPattern("ABC-12"));
+		assertEquals("abc%", InventoryItemSpecifications.prefixPattern("ABC"));
+	}
+
+	@Test
+	void wildcardsInInputMatchLiterally() {
+		assertEquals("%50\\% off\\_now\\\\%", InventoryItemSpecifications.containsPattern("50% OFF_now\\"));
+	}
+
+	@Test
+	void lowerCasingDoesNotDependOnTheDefaultLocale() {
+		// lower(sku) in the trigram indexes folds I to i; the Turkish default locale would yield a dotless i
+		Locale original = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+		try {
+			assertEquals("%item%", InventoryItemSpecifications.containsPattern("ITEM"));
+		}
+		finally {
+			Locale.setDefault(original);
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.inventory.audit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class InventoryReadModelTest {
+
+	private final InventoryItemRepository repo = mock(InventoryItemRepository.class);
+
+	@Test
+	void looksUpRowsByIdAndSku() {
+		Instant updatedAt = Instant.parse("2024-01-01T12:05:00.123456Z");
+		InventoryReadModel model = loaded(new InventoryItemSnapshot(7L, "ÜBER-1", "Größe M", 12, "WH-A", updatedAt),
+				item(8, "SKU-8"));
+
+		InventoryItem item = model.findBySku("ÜBER-1").orElseThrow();
+		assertEquals(7L, item.getId());
+		assertEquals("Größe M", item.getName());
+		assertEquals(12, item.getQty());
+		assertEquals("WH-A", item.getLocation());
+		assertEquals(updatedAt, item.getUpdatedAt());
+		assertEquals("SKU-8", model.findById(8).orElseThrow().getSku());
+		assertEquals(Optional.empty(), model.findById(9));
+		assertEquals(Optional.empty(), model.findBySku("über-1"));
+	}
+
+	@Test
+	void deleteThenReinsertAcrossTheTableWrap() {
+		// Three ids homed in the last slot of the initial 16-slot table, so the second and third wrap to the front
+		long[] wrapping = idsHomedAt(15, 16, 3);
+		InventoryReadModel model = loaded(item(wrapping[0], "A"), item(wrapping[1], "B"), item(wrapping[2], "C"));
+
+		model.onItemChanged(InventoryItemChangedEvent.deleted(item(wrapping[0], "A"), "admin"));
+		assertEquals(Optional.empty(), model.findById(wrapping[0]));
+		assertEquals("B", model.findById(wrapping[1]).orElseThrow().getSku());
+		assertEquals("C", model.findById(wrapping[2]).orElseThrow().getSku());
+
+		model.onItemChanged(InventoryItemChangedEvent.created(item(wrapping[0], "A2", Instant.EPOCH.plusSeconds(1)), "admin"));
+		model.onItemChanged(InventoryItemChangedEvent.deleted(item(wrapping[1], "B"), "admin"));
+		assertEquals("A2", model.findById(wrapping[0]).orElseThrow().getSku());
+		assertEquals(Optional.empty(), model.findById(wrapping[1]));
+		assertEquals("C", model.findBySku("C").orElseThrow().getSku());
+		assertEquals(Optional.empty(), model.findBySku("A"));
+	}
+
+	@Test
+	void compactionAfterTombstonesKeepsEveryLiveRow() {
+		InventoryReadModel model = loaded(item(1, "KEEP-1"), item(2, "KEEP-2"));
+		model.onItemChanged(InventoryItemChangedEvent.created(churned(0), "admin"));
+		churn(model, 1, 1500);
+		long afterFirstCompaction = model.memoryBytes();
+
+		assertEquals("KEEP-1", model.findById(1).orElseThrow().getSku());
+		assertEquals(2L, model.findBySku("KEEP-2").orElseThrow().getId());
+		assertEquals(1500, model.findBySku("CHURN-1500").orElseThrow().getQty());
+		assertEquals(Optional.empty(), model.findBySku("CHURN-1499"));
+
+		// Compacted rows are reused, so further churn does not grow the arrays
+		churn(model, 1501, 6000);
+		assertEquals(6000, model.findById(3).orElseThrow().getQty());
+		assertEquals("KEEP-1", model.findById(1).orElseThrow().getSku());
+		assertTrue(model.memoryBytes() <= afterFirstCompaction);
+	}
+
+	private static void churn(InventoryReadModel model, int fromVersion, int toVersion) {
+		for (int version = fromVersion; version <= toVersion; version++) {
+			model.onItemChanged(InventoryItemChangedEvent.updated(churned(version - 1), churned(version), "admin"));
+		}
+	}
+
+	private static InventoryItemSnapshot churned(int version) {
+		return new InventoryItemSnapshot(3L, "CHURN-" + version, "Churned", version, "WH-B", Instant.EPOCH);
+	}
+
+	@Test
+	void agreesWithAMapThroughRandomChurn() {
+		InventoryReadModel model = loaded();
+		Map<Long, String> expected = new HashMap<>();
+		Map<Long, InventoryItemSnapshot> stored = new HashMap<>();
+		Random random = new Random(42);
+		for (int step = 0; step < 20_000; step++) {
+			long id = random.nextInt(40);
+			InventoryItemSnapshot previous = stored.get(id);
+			if (previous != null && random.nextBoolean()) {
+				model.onItemChanged(InventoryItemChangedEvent.deleted(previous, "admin"));
+				expected.remove(id);
+				stored.remove(id);
+			}
+			else {
+				String sku = "S" + id + "-" + step;
+				InventoryItemSnapshot current = item(id, sku, Instant.EPOCH.plusSeconds(step + 1));
+				model.onItemChanged(previous == null
+						? InventoryItemChangedEvent.created(current, "admin")
+						: InventoryItemChangedEvent.updated(previous, current, "admin"));
+				expected.put(id, sku);
+				stored.put(id, current);
+			}
+		}
+
+		for (long id = 0; id < 40; id++) {
+			String sku = expected.get(id);
+			assertEquals(Optional.ofNullable(sku), model.findById(id).map(InventoryItem::getSku));
+			if (sku != null) {
+				assertEquals(id, model.findBySku(sku).orElseThrow().getId());
+			}
+		}
+	}
+
+	@Test
+	void skipsAChangeOlderThanTheStoredRow() {
+		InventoryItemSnapshot v1 = item(1, "A-1", Instant.EPOCH.plusSeconds(1));
+		InventoryItemSnapshot v2 = item(1, "A-2", Instant.EPOCH.plusSeconds(2));
+		InventoryItemSnapshot v3 = item(1, "A-3", Instant.EPOCH.plusSeconds(3));
+		InventoryReadModel model = loaded(v1);
+
+		// The second commit's listener runs before the first one's
+		model.onItemChanged(InventoryItemChangedEvent.updated(v2, v3, "admin"));
+		model.onItemChanged(InventoryItemChangedEvent.updated(v1, v2, "admin"));
+
+		assertEquals("A-3", model.findById(1).orElseThrow().getSku());
+		assertEquals(1L, model.findBySku("A-3").orElseThrow().getId());
+		assertEquals(Optional.empty(), model.findBySku("A-2"));
+	}
+
+	@Test
+	void lateUpdateDoesNotBringBackADeletedItem() {
+		InventoryItemSnapshot v1 = item(1, "A-1", Instant.EPOCH.plusSeconds(1));
+		InventoryItemSnapshot v2 = item(1, "A-2", Instant.EPOCH.plusSeconds(2));
+		InventoryReadModel model = loaded(v1);
+
+		model.onItemChanged(InventoryItemChangedEvent.deleted(v2, "admin"));
+		model.onItemChanged(InventoryItemChangedEvent.updated(v1, v2, "admin"));
+
+		assertEquals(Optional.empty(), model.findById(1));
+		assertEquals(Optional.empty(), model.findBySku("A-2"));
+		assertEquals(Optional.empty(), model.findBySku("A-1"));
+	}
+
+	@Test
+	void staysEmptyWhenDisabled() {
+		InventoryReadModel model = new InventoryReadModel(repo, false);
+
+		model.rebuild();
+		model.onItemChanged(InventoryItemChangedEvent.created(item(1, "A"), "admin"));
+
+		assertFalse(model.isReady());
+		assertEquals(Optional.empty(), model.findById(1));
+		verifyNoInteractions(repo);
+	}
+
+	private InventoryReadModel loaded(InventoryItemSnapshot... items) {
+		when(repo.streamAllSnapshots()).thenReturn(Stream.of(items));
+		InventoryReadModel model = new InventoryReadModel(repo, true);
+		model.rebuild();
+		assertTrue(model.isReady());
+		return model;
+	}
+
+	private static long[] idsHomedAt(int slot, int capacity, int count) {
+		List<Long> found = new ArrayList<>();
+		for (long id = 1; found.size() < count; id++) {
+			if ((InventoryReadModel.idHash(id) & (capacity - 1)) == slot) {
+				found.add(id);
+			}
+		}
+		return found.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	private static InventoryItemSnapshot item(long id, String sku) {
+		return item(id, sku, Instant.EPOCH);
+	}
+
+	private static InventoryItemSnapshot item(long id, String sku, Instant updatedAt) {
+		return new InventoryItemSnapshot(id, sku, "Item " + id, 1, "WH", updatedAt);
+	}
+
+}
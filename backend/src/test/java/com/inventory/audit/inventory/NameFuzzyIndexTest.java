@@ -0,0 +1,138 @@
+package com.inventory.audit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class NameFuzzyIndexTest {
+
+	private final InventoryItemRepository repo = mock(InventoryItemRepository.class);
+
+	@Test
+	void packsPaddedLowerCaseTrigramsOfEachWord() {
+		long[] expected = {pack(' ', ' ', 'a'), pack(' ', 'a', 'b'), pack('a', 'b', ' ')};
+
+		assertArrayEquals(expected, sorted(NameFuzzyIndex.trigrams("ab")));
+		assertArrayEquals(expected, sorted(NameFuzzyIndex.trigrams("AB-ab")), "case folded and deduplicated");
+		assertEquals(0, NameFuzzyIndex.trigrams(" -- ").length);
+	}
+
+	@Test
+	void keepsCharactersBeyondLatin1Apart() {
+		// Packed as full 16-bit chars, so U+0161 and U+0061 never collide
+		assertNotEquals(NameFuzzyIndex.trigrams("ša")[0], NameFuzzyIndex.trigrams("aa")[0]);
+	}
+
+	@Test
+	void ranksByCoverageThenSimilarityThenId() {
+		NameFuzzyIndex index = loaded(item(3, "Widget Blue Large"), item(1, "Widget"), item(2, "Widget"),
+				item(4, "Gadget"));
+
+		List<NameFuzzyIndex.Match> matches = index.search("widgte", 10);
+
+		assertEquals(List.of(1L, 2L, 3L), matches.stream().map(NameFuzzyIndex.Match::id).toList());
+		assertEquals(matches.get(0).score(), matches.get(2).score(), "same coverage, ranked apart by similarity");
+		assertEquals(List.of(1L), index.search("widgte", 1).stream().map(NameFuzzyIndex.Match::id).toList());
+	}
+
+	@Test
+	void compactionAfterTombstonesKeepsLiveSlotsMatching() {
+		NameFuzzyIndex index = loaded(item(1, "Alpha Widget"), item(2, "Bravo Gadget"));
+		for (long id = 100; id < 1300; id++) {
+			index.onItemChanged(InventoryItemChangedEvent.created(item(id, "Temporary " + id), "admin"));
+		}
+		for (long id = 100; id < 1300; id++) {
+			index.onItemChanged(InventoryItemChangedEvent.deleted(item(id, "Temporary " + id), "admin"));
+		}
+		// Renames tombstone the old slot too, and the live slot has moved past every compacted one
+		index.onItemChanged(InventoryItemChangedEvent.updated(item(2, "Bravo Gadget"), item(2, "Charlie Gizmo"), "admin"));
+
+		assertEquals(List.of(1L), ids(index.search("alpha widget", 10)));
+		assertEquals(List.of(2L), ids(index.search("charlie gizmo", 10)));
+		assertEquals(List.of(), ids(index.search("bravo gadget", 10)));
+		assertEquals(List.of(), ids(index.search("temporary", 10)));
+
+		index.onItemChanged(InventoryItemChangedEvent.created(item(5, "Temporary 5"), "admin"));
+		assertEquals(List.of(5L), ids(index.search("temporary", 10)));
+	}
+
+	@Test
+	void changesCommittedDuringARebuildAreApplied() {
+		NameFuzzyIndex index = new NameFuzzyIndex(repo, 0.4);
+		when(repo.streamAllSnapshots()).thenAnswer(invocation -> {
+			index.onItemChanged(InventoryItemChangedEvent.created(item(2, "Late Arrival"), "admin"));
+			return Stream.of(item(1, "Early Bird"));
+		});
+
+		index.rebuild();
+
+		assertTrue(index.isReady());
+		assertEquals(List.of(2L), ids(index.search("late arrival", 10)));
+		assertEquals(List.of(1L), ids(index.search("early bird", 10)));
+	}
+
+	@Test
+	void lateRenameDoesNotBringBackTheOldName() {
+		NameFuzzyIndex index = loaded(item(1, "Alpha Widget"));
+		InventoryItemSnapshot renamed = item(1, "Bravo Gadget", Instant.EPOCH.plusSeconds(1));
+		InventoryItemSnapshot renamedAgain = item(1, "Charlie Gizmo", Instant.EPOCH.plusSeconds(2));
+
+		// The second rename's listener runs before the first one's
+		index.onItemChanged(InventoryItemChangedEvent.updated(renamed, renamedAgain, "admin"));
+		index.onItemChanged(InventoryItemChangedEvent.updated(item(1, "Alpha Widget"), renamed, "admin"));
+
+		assertEquals(List.of(1L), ids(index.search("charlie gizmo", 10)));
+		assertEquals(List.of(), ids(index.search("bravo gadget", 10)));
+	}
+
+	@Test
+	void lateRenameDoesNotBringBackADeletedItem() {
+		NameFuzzyIndex index = loaded(item(1, "Alpha Widget"));
+		InventoryItemSnapshot renamed = item(1, "Bravo Gadget", Instant.EPOCH.plusSeconds(1));
+
+		index.onItemChanged(InventoryItemChangedEvent.deleted(renamed, "admin"));
+		index.onItemChanged(InventoryItemChangedEvent.updated(item(1, "Alpha Widget"), renamed, "admin"));
+
+		assertEquals(List.of(), ids(index.search("bravo gadget", 10)));
+		assertEquals(List.of(), ids(index.search("alpha widget", 10)));
+	}
+
+	private NameFuzzyIndex loaded(InventoryItemSnapshot... items) {
+		when(repo.streamAllSnapshots()).thenReturn(Stream.of(items));
+		NameFuzzyIndex index = new NameFuzzyIndex(repo, 0.4);
+		index.rebuild();
+		return index;
+	}
+
+	private static InventoryItemSnapshot item(long id, String name) {
+		return item(id, name, Instant.EPOCH);
+	}
+
+	private static InventoryItemSnapshot item(long id, String name, Instant updatedAt) {
+		return new InventoryItemSnapshot(id, "SKU-" + id, name, 1, "WH", updatedAt);
+	}
+
+	private static List<Long> ids(List<NameFuzzyIndex.Match> matches) {
+		return matches.stream().map(NameFuzzyIndex.Match::id).toList();
+	}
+
+	private static long pack(char a, char b, char c) {
+		return ((long) a << 32) | ((long) b << 16) | c;
+	}
+
+	private static long[] sorted(long[] values) {
+		long[] copy = values.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+}
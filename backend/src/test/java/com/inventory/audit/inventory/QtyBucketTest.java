@@ -0,0 +1,24 @@
+package com.inventory.audit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class QtyBucketTest {
+
+	@Test
+	void caseExpressionMapsQtyToBucketOrdinals() {
+		assertEquals("CASE WHEN qty <= 0 THEN 0 WHEN qty <= 10 THEN 1 WHEN qty <= 50 THEN 2"
+				+ " WHEN qty <= 100 THEN 3 ELSE 4 END", QtyBucket.sqlCaseExpression());
+	}
+
+	@Test
+	void labelsNameContiguousRangesInOrdinalOrder() {
+		// Facets are reported by ordinal, so the labels must read in ascending order without gaps
+		assertEquals(List.of("0", "1-10", "11-50", "51-100", "101+"),
+				Arrays.stream(QtyBucket.values()).map(QtyBucket::getLabel).toList());
+	}
+
+}
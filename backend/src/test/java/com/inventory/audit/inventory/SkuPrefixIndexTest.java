@@ -0,0 +1,118 @@
+package com.inventory.audit.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class SkuPrefixIndexTest {
+
+	private final InventoryItemRepository repo = mock(InventoryItemRepository.class);
+
+	@Test
+	void suggestsPrefixMatchesIgnoringCaseInSortedOrder() {
+		SkuPrefixIndex index = loaded(10, "abc-2", "ABC-1", "abd-1", "xyz", "Abc-3");
+
+		assertEquals(List.of("ABC-1", "abc-2", "Abc-3"), index.suggest("abc", 10));
+		assertEquals(List.of("ABC-1", "abc-2"), index.suggest("ABC", 2));
+		assertEquals(List.of(), index.suggest("zz", 10));
+		assertEquals(List.of("ABC-1", "abc-2", "Abc-3", "abd-1", "xyz"), index.suggest("", 10));
+	}
+
+	@Test
+	void committedChangesOfOneTransactionAreMergedTogether() {
+		SkuPrefixIndex index = loaded(10, "A-1", "A-2", "B-1");
+
+		index.applyCommitted(List.of(
+				InventoryItemChangedEvent.created(item(4, "A-3"), "admin"),
+				InventoryItemChangedEvent.updated(item(1, "A-1"), item(1, "C-1"), "admin"),
+				InventoryItemChangedEvent.deleted(item(3, "B-1"), "admin"),
+				InventoryItemChangedEvent.updated(item(2, "A-2"), item(2, "A-2"), "admin")));
+
+		assertEquals(List.of("A-2", "A-3", "C-1"), index.suggest("", 10));
+	}
+
+	@Test
+	void lastChangeToASkuDecidesWhetherItIsPresent() {
+		SkuPrefixIndex index = loaded(10, "A-1");
+
+		index.applyCommitted(List.of(
+				InventoryItemChangedEvent.deleted(item(1, "A-1"), "admin"),
+				InventoryItemChangedEvent.created(item(2, "A-1"), "admin"),
+				InventoryItemChangedEvent.created(item(3, "B-1"), "admin"),
+				InventoryItemChangedEvent.deleted(item(3, "B-1"), "admin")));
+
+		assertEquals(List.of("A-1"), index.suggest("", 10));
+	}
+
+	@Test
+	void overlayChangesAreSuggestedAlongsideTheBaseArray() {
+		SkuPrefixIndex index = loaded(10, "abc-2", "abd-1");
+
+		index.applyCommitted(List.of(InventoryItemChangedEvent.created(item(3, "ABC"), "admin")));
+		index.applyCommitted(List.of(InventoryItemChangedEvent.created(item(4, "abc-1"), "admin")));
+		index.applyCommitted(List.of(InventoryItemChangedEvent.deleted(item(1, "abc-2"), "admin")));
+
+		assertEquals(3, index.overlaySize());
+		assertEquals(List.of("ABC", "abc-1"), index.suggest("abc", 10));
+		assertEquals(List.of("ABC", "abc-1", "abd-1"), index.suggest("ab", 10));
+		assertEquals(List.of("ABC"), index.suggest("ab", 1));
+	}
+
+	@Test
+	void changesThatUndoEachOtherLeaveNoOverlayEntry() {
+		SkuPrefixIndex index = loaded(10, "A-1");
+
+		index.applyCommitted(List.of(InventoryItemChangedEvent.deleted(item(1, "A-1"), "admin")));
+		index.applyCommitted(List.of(InventoryItemChangedEvent.created(item(2, "A-1"), "admin")));
+
+		assertEquals(0, index.overlaySize());
+		assertEquals(List.of("A-1"), index.suggest("", 10));
+	}
+
+	@Test
+	void foldingMovesTheOverlayIntoTheBaseArray() {
+		SkuPrefixIndex index = loaded(10, "A-1", "B-1");
+		index.applyCommitted(List.of(
+				InventoryItemChangedEvent.created(item(3, "A-2"), "admin"),
+				InventoryItemChangedEvent.deleted(item(2, "B-1"), "admin")));
+
+		index.fold();
+
+		assertEquals(0, index.overlaySize());
+		assertEquals(List.of("A-1", "A-2"), index.suggest("", 10));
+		index.applyCommitted(List.of(InventoryItemChangedEvent.deleted(item(3, "A-2"), "admin")));
+		assertEquals(List.of("A-1"), index.suggest("", 10));
+	}
+
+	@Test
+	void disablesItselfPastTheLimit() {
+		assertFalse(loaded(2, "A-1", "A-2", "A-3").isReady());
+
+		SkuPrefixIndex index = loaded(2, "A-1");
+		assertTrue(index.isReady());
+		index.applyCommitted(List.of(
+				InventoryItemChangedEvent.created(item(2, "A-2"), "admin"),
+				InventoryItemChangedEvent.created(item(3, "A-3"), "admin")));
+		assertFalse(index.isReady());
+		assertEquals(List.of(), index.suggest("A", 10));
+	}
+
+	private SkuPrefixIndex loaded(int maxEntries, String... skus) {
+		when(repo.streamAllSkus()).thenReturn(Stream.of(skus));
+		SkuPrefixIndex index = new SkuPrefixIndex(repo, maxEntries, Integer.MAX_VALUE);
+		index.rebuild();
+		return index;
+	}
+
+	private static InventoryItemSnapshot item(long id, String sku) {
+		return new InventoryItemSnapshot(id, sku, "Item " + id, 1, "WH", Instant.EPOCH);
+	}
+
+}
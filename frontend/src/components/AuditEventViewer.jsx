@@ -14,6 +14,7 @@ function AuditEventViewer() {
   const [sortDir, setSortDir] = useState('DESC')
   const [totalPages, setTotalPages] = useState(0)
   const [totalElements, setTotalElements] = useState(0)
+  const [hasNext, setHasNext] = useState(false)
   
   // Filters
   const [entityTypeFilter, setEntityTypeFilter] = useState('')
@@ -44,9 +45,12 @@ function AuditEventViewer() {
       } else {
         data = await auditApi.getAll(page, size, sortBy, sortDir)
       }
+      // Audit lists are fetched count-free; totals come from planner estimates
+      const total = data.totalEstimate || 0
       setEvents(data.content || [])
-      setTotalPages(data.totalPages || 0)
-      setTotalElements(data.totalElements || 0)
+      setTotalPages(Math.ceil(total / size))
+      setTotalElements(total)
+      setHasNext(Boolean(data.hasNext))
     } catch (err) {
       setError(err.message || 'Failed to fetch audit events')
       setEvents([])
@@ -59,6 +63,24 @@ function AuditEventViewer() {
     fetchEvents()
   }, [fetchEvents])
 
+  // Show new events as they are recorded instead of polling; only the newest-first first page changes
+  useEffect(() => {
+    if (page !== 0 || sortBy !== 'timestamp' || sortDir !== 'DESC') return undefined
+    // Same precedence as fetchEvents, so the stream matches the list it feeds
+    let filters = {}
+    if (isUserRole) filters = { userId: user?.username }
+    else if (entityTypeFilter) filters = { entityType: entityTypeFilter }
+    else if (eventTypeFilter) filters = { eventType: eventTypeFilter }
+    else if (effectiveUserIdFilter) filters = { userId: effectiveUserIdFilter }
+    return auditApi.subscribe(filters, (name, event) => {
+      if (name === 'overflow') {
+        fetchEvents()
+      } else if (name === 'audit') {
+        setEvents((events) => [event, ...events].slice(0, size))
+      }
+    })
+  }, [page, size, sortBy, sortDir, entityTypeFilter, eventTypeFilter, effectiveUserIdFilter, isUserRole, user, fetchEvents])
+
   const handleSort = (field) => {
     if (sortBy === field) {
       setSortDir(sortDir === 'ASC' ? 'DESC' : 'ASC')
@@ -133,8 +155,8 @@ function AuditEventViewer() {
           <h1 className="text-2xl font-semibold text-gray-900">Audit Events</h1>
           <p className="mt-2 text-sm text-gray-700">
             {isUserRole 
-              ? `View your audit events. Total: ${totalElements} events`
-              : `View all audit events and track changes. Total: ${totalElements} events`
+              ? `View your audit events. Total: ~${totalElements} events`
+              : `View all audit events and track changes. Total: ~${totalElements} events`
             }
           </p>
         </div>
@@ -332,6 +354,8 @@ function AuditEventViewer() {
           <Pagination
             page={page}
             totalPages={totalPages}
+            hasNext={hasNext}
+            approximate
             size={size}
             onPageChange={setPage}
             onSizeChange={(newSize) => {
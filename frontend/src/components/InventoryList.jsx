@@ -58,7 +58,7 @@ function InventoryList() {
   const fetchLocations = useCallback(async () => {
     try {
       const summary = await inventoryApi.getLocationSummary()
-      const locationList = summary.map(([location]) => location).filter(Boolean)
+      const locationList = summary.map(({ location }) => location).filter(Boolean)
       setLocations(locationList)
     } catch (err) {
       console.error('Failed to fetch locations:', err)
@@ -73,6 +73,26 @@ function InventoryList() {
     fetchLocations()
   }, [fetchLocations])
 
+  // Keep the visible page current from the live change stream instead of polling
+  useEffect(() => {
+    const showsNewestFirst = page === 0 && !searchTerm && sortBy === 'updatedAt' && sortDir === 'DESC'
+    return inventoryApi.subscribe(locationFilter, (name, change) => {
+      if (name === 'overflow') {
+        fetchItems()
+        return
+      }
+      if (name !== 'inventory') return
+      const { type, previous, current } = change
+      if (type === 'DELETED' || (locationFilter && current.location !== locationFilter)) {
+        setItems((items) => items.filter((item) => item.id !== (previous || current).id))
+      } else if (type === 'UPDATED') {
+        setItems((items) => items.map((item) => (item.id === current.id ? { ...item, ...current } : item)))
+      } else if (type === 'CREATED' && showsNewestFirst) {
+        setItems((items) => [current, ...items].slice(0, size))
+      }
+    })
+  }, [locationFilter, fetchItems, page, size, searchTerm, sortBy, sortDir])
+
   const handleSearch = useCallback((term, type) => {
     setSearchTerm(term)
     setSearchMode(type)
@@ -17,8 +17,8 @@ function LocationSummary() {
     setError(null)
     try {
       const data = await inventoryApi.getLocationSummary()
-      // Data format: [[location, count, totalQty], ...]
-      const formatted = data.map(([location, count, totalQty]) => ({
+      // Data format: [{ location, count, totalQty }, ...]
+      const formatted = data.map(({ location, count, totalQty }) => ({
         location: location || 'Unknown',
         count: count || 0,
         totalQty: totalQty || 0,
@@ -1,4 +1,8 @@
-function Pagination({ page, totalPages, size, onPageChange, onSizeChange }) {
+function Pagination({ page, totalPages, hasNext, approximate = false, size, onPageChange, onSizeChange }) {
+  // Count-free responses report hasNext; fall back to totalPages for exact pages
+  const canGoNext = hasNext !== undefined ? hasNext : page < totalPages - 1;
+  const displayedPages = Math.max(totalPages, page + (canGoNext ? 2 : 1));
+
   const handlePrevious = () => {
     if (page > 0) {
       onPageChange(page - 1);
@@ -6,7 +10,7 @@ function Pagination({ page, totalPages, size, onPageChange, onSizeChange }) {
   };
 
   const handleNext = () => {
-    if (page < totalPages - 1) {
+    if (canGoNext) {
       onPageChange(page + 1);
     }
   };
@@ -15,7 +19,7 @@ function Pagination({ page, totalPages, size, onPageChange, onSizeChange }) {
     onSizeChange(parseInt(e.target.value));
   };
 
-  if (totalPages === 0) {
+  if (totalPages === 0 && !canGoNext && page === 0) {
     return null;
   }
 
@@ -35,9 +39,9 @@ function Pagination({ page, totalPages, size, onPageChange, onSizeChange }) {
         </button>
         <button
           onClick={handleNext}
-          disabled={page >= totalPages - 1}
+          disabled={!canGoNext}
           className={`relative ml-3 inline-flex items-center rounded-md border border-gray-300 bg-white px-4 py-2 text-sm font-medium ${
-            page >= totalPages - 1
+            !canGoNext
               ? 'text-gray-300 cursor-not-allowed'
               : 'text-gray-700 hover:bg-gray-50'
           }`}
@@ -49,7 +53,7 @@ function Pagination({ page, totalPages, size, onPageChange, onSizeChange }) {
         <div>
           <p className="text-sm text-gray-700">
             Page <span className="font-medium">{page + 1}</span> of{' '}
-            <span className="font-medium">{totalPages}</span>
+            <span className="font-medium">{approximate ? '~' : ''}{displayedPages}</span>
           </p>
         </div>
         <div className="flex items-center space-x-4">
@@ -86,9 +90,9 @@ function Pagination({ page, totalPages, size, onPageChange, onSizeChange }) {
             </button>
             <button
               onClick={handleNext}
-              disabled={page >= totalPages - 1}
+              disabled={!canGoNext}
               className={`relative inline-flex items-center rounded-r-md px-2 py-2 text-gray-400 ring-1 ring-inset ring-gray-300 ${
-                page >= totalPages - 1
+                !canGoNext
                   ? 'cursor-not-allowed bg-gray-50'
                   : 'hover:bg-gray-50 focus:z-20 focus:outline-offset-0'
               }`}
@@ -1,7 +1,9 @@
 import { useState, useEffect, useRef } from 'react'
+import { inventoryApi } from '../services/api'
 
 function SearchBar({ onSearch, onClear, searchType = 'sku' }) {
   const [searchTerm, setSearchTerm] = useState('')
+  const [suggestions, setSuggestions] = useState([])
   const onSearchRef = useRef(onSearch)
   const onClearRef = useRef(onClear)
 
@@ -24,6 +26,26 @@ function SearchBar({ onSearch, onClear, searchType = 'sku' }) {
     }
   }, [searchTerm])
 
+  // SKU suggestions come from the in-memory prefix index, so they are fetched on every keystroke
+  useEffect(() => {
+    const prefix = searchTerm.trim()
+    if (searchType !== 'sku' || !prefix) {
+      setSuggestions([])
+      return
+    }
+    let cancelled = false
+    inventoryApi.autocomplete(prefix)
+      .then((skus) => {
+        if (!cancelled) setSuggestions(skus)
+      })
+      .catch(() => {
+        if (!cancelled) setSuggestions([])
+      })
+    return () => {
+      cancelled = true
+    }
+  }, [searchTerm, searchType])
+
   const handleClear = () => {
     setSearchTerm('')
     onClear()
@@ -50,9 +72,17 @@ function SearchBar({ onSearch, onClear, searchType = 'sku' }) {
           type="text"
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
+          list={searchType === 'sku' ? 'sku-suggestions' : undefined}
           placeholder={`Search by ${searchType === 'sku' ? 'SKU' : 'name'}...`}
           className="block w-full pl-10 pr-10 py-2 border border-gray-300 rounded-md leading-5 bg-white placeholder-gray-500 focus:outline-none focus:placeholder-gray-400 focus:ring-1 focus:ring-blue-500 focus:border-blue-500 sm:text-sm"
         />
+        {searchType === 'sku' && (
+          <datalist id="sku-suggestions">
+            {suggestions.map((sku) => (
+              <option key={sku} value={sku} />
+            ))}
+          </datalist>
+        )}
         {searchTerm && (
           <div className="absolute inset-y-0 right-0 pr-3 flex items-center">
             <button
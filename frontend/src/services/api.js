@@ -40,6 +40,68 @@ const handleResponse = async (response) => {
   return response.json();
 };
 
+// Open a Server-Sent Events stream and call onEvent(name, data) for each event.
+// Uses fetch rather than EventSource so the Authorization header can be sent.
+// Reconnects after a delay until the returned function is called.
+const openStream = (path, params, onEvent) => {
+  const controller = new AbortController();
+  const query = new URLSearchParams(
+    Object.entries(params).filter(([, value]) => value !== undefined && value !== null && value !== '')
+  );
+
+  const connect = async () => {
+    try {
+      const response = await fetch(`${API_BASE_URL}${path}?${query}`, {
+        headers: { ...getHeaders(), Accept: 'text/event-stream' },
+        signal: controller.signal,
+      });
+      if (response.status === 401) {
+        handleUnauthorized();
+        return;
+      }
+      if (!response.ok || !response.body) {
+        throw new Error(`HTTP error! status: ${response.status}`);
+      }
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value;
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          const block = buffer.slice(0, boundary);
+          buffer = buffer.slice(boundary + 2);
+          let name = 'message';
+          const data = [];
+          block.split('\n').forEach((line) => {
+            if (line.startsWith('event:')) name = line.slice(6).trim();
+            else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+          });
+          if (data.length > 0) {
+            const text = data.join('\n');
+            try {
+              onEvent(name, JSON.parse(text));
+            } catch {
+              onEvent(name, text);
+            }
+          }
+        }
+      }
+    } catch (err) {
+      if (controller.signal.aborted) return;
+      console.error('Event stream failed:', err);
+    }
+    if (!controller.signal.aborted) {
+      setTimeout(connect, 5000);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};
+
 // Inventory Item API
 export const inventoryApi = {
   // Get paginated list of items
@@ -112,6 +174,18 @@ export const inventoryApi = {
     return handleResponse(response);
   },
 
+  // Get SKU suggestions for a prefix
+  autocomplete: async (prefix, limit = 10) => {
+    const params = new URLSearchParams({
+      prefix,
+      limit: limit.toString(),
+    });
+    const response = await fetch(`${API_BASE_URL}/inventory/autocomplete?${params}`, {
+      headers: getHeaders(),
+    });
+    return handleResponse(response);
+  },
+
   // Get location summary
   getLocationSummary: async () => {
     const response = await fetch(`${API_BASE_URL}/inventory/summary/location`, {
@@ -120,6 +194,9 @@ export const inventoryApi = {
     return handleResponse(response);
   },
 
+  // Subscribe to committed changes; returns a function that closes the stream
+  subscribe: (location, onEvent) => openStream('/inventory/stream', { location }, onEvent),
+
   // Create item
   create: async (item) => {
     const response = await fetch(`${API_BASE_URL}/inventory`, {
@@ -173,6 +250,7 @@ export const auditApi = {
       size: size.toString(),
       sortBy,
       sortDir,
+      count: 'estimate',
     });
     const response = await fetch(`${API_BASE_URL}/audit-events?${params}`, {
       headers: getHeaders(),
@@ -195,6 +273,7 @@ export const auditApi = {
       size: size.toString(),
       sortBy,
       sortDir,
+      count: 'estimate',
     });
     const response = await fetch(`${API_BASE_URL}/audit-events/entity/${entityType}/${entityId}?${params}`, {
       headers: getHeaders(),
@@ -209,6 +288,7 @@ export const auditApi = {
       size: size.toString(),
       sortBy,
       sortDir,
+      count: 'estimate',
     });
     const response = await fetch(`${API_BASE_URL}/audit-events/entity-type/${entityType}?${params}`, {
       headers: getHeaders(),
@@ -223,6 +303,7 @@ export const auditApi = {
       size: size.toString(),
       sortBy,
       sortDir,
+      count: 'estimate',
     });
     const response = await fetch(`${API_BASE_URL}/audit-events/event-type/${eventType}?${params}`, {
       headers: getHeaders(),
@@ -237,6 +318,7 @@ export const auditApi = {
       size: size.toString(),
       sortBy,
       sortDir,
+      count: 'estimate',
     });
     const response = await fetch(`${API_BASE_URL}/audit-events/user/${userId}?${params}`, {
       headers: getHeaders(),
@@ -244,6 +326,9 @@ export const auditApi = {
     return handleResponse(response);
   },
 
+  // Subscribe to newly recorded events; returns a function that closes the stream
+  subscribe: (filters, onEvent) => openStream('/audit-events/stream', filters, onEvent),
+
   // Create event (manual)
   create: async (event) => {
     const response = await fetch(`${API_BASE_URL}/audit-events`, {
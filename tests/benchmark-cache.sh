@@ -0,0 +1,126 @@
+#!/bin/bash
+
+# Item Cache Benchmark
+# Runs a mixed read/write workload against GET /api/inventory/{id} and PUT /api/inventory/{id}
+# and reports the "inventoryItems" cache hit ratio per round, from the cache.gets actuator metric.
+# With key-targeted eviction the ratio should stay flat as the write share grows; when every
+# write empties the cache it collapses. Run it against two builds to compare them.
+# Writes bump the qty of items in the working set, so run it against test data.
+# Author: Victor Tiradoegas
+
+# Colors
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+CYAN='\033[0;36m'
+NC='\033[0m' # No Color
+
+# Configuration
+BACKEND_URL="${BACKEND_URL:-http://localhost:8080}"
+ADMIN_USERNAME="${ADMIN_USERNAME:-admin}"
+ADMIN_PASSWORD="${ADMIN_PASSWORD:-admin123!}"
+BENCH_WORKING_SET="${BENCH_WORKING_SET:-500}"
+BENCH_ROUNDS="${BENCH_ROUNDS:-10}"
+BENCH_OPS="${BENCH_OPS:-1000}"
+BENCH_WRITE_PERCENT="${BENCH_WRITE_PERCENT:-5}"
+BENCH_CONCURRENCY="${BENCH_CONCURRENCY:-8}"
+
+# Results log
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+LOG_DIR="$SCRIPT_DIR/logs"
+mkdir -p "$LOG_DIR"
+RESULT_LOG="$LOG_DIR/benchmark-cache-$(date +%Y%m%d-%H%M%S).log"
+echo "Item Cache Benchmark Started: $(date)" > "$RESULT_LOG"
+
+print_section() {
+    echo ""
+    echo "=========================================="
+    echo "$1"
+    echo "=========================================="
+    echo ""
+}
+
+# Returns the cumulative count of inventoryItems cache lookups with the given result (hit or miss)
+cache_gets() {
+    curl -s -H "$AUTH_HEADER" "$BACKEND_URL/actuator/metrics/cache.gets?tag=cache:inventoryItems&tag=result:$1" \
+        | grep -o '"value":[0-9.E+-]*' | head -1 | cut -d: -f2 | awk '{printf "%.0f", $1}'
+}
+
+# Runs one operation; a line is "R <id>" for a read or "W <id> <sku> <name> <qty> <location>" for a write
+run_op() {
+    local kind id sku name qty location
+    IFS=$'\t' read -r kind id sku name qty location <<< "$1"
+    if [ "$kind" = "R" ]; then
+        curl -s -o /dev/null -H "$AUTH_HEADER" "$BACKEND_URL/api/inventory/$id"
+    else
+        curl -s -o /dev/null -X PUT -H "$AUTH_HEADER" -H "Content-Type: application/json" \
+            -d "{\"sku\":\"$sku\",\"name\":\"$name\",\"qty\":$((qty + RANDOM % 10 + 1)),\"location\":\"$location\"}" \
+            "$BACKEND_URL/api/inventory/$id"
+    fi
+}
+export -f run_op
+
+print_section "Item Cache Benchmark"
+
+LOGIN_RESPONSE=$(curl -s -X POST "$BACKEND_URL/api/auth/login" \
+  -H "Content-Type: application/json" \
+  -d "{\"username\":\"$ADMIN_USERNAME\",\"password\":\"$ADMIN_PASSWORD\"}")
+TOKEN=$(echo "$LOGIN_RESPONSE" | grep -o '"token":"[^"]*' | cut -d'"' -f4 | head -1)
+if [ -z "$TOKEN" ]; then
+    echo -e "${RED}✗ Login failed; check ADMIN_USERNAME and ADMIN_PASSWORD.${NC}"
+    exit 1
+fi
+export AUTH_HEADER="Authorization: Bearer $TOKEN"
+export BACKEND_URL
+
+if [ -z "$(cache_gets hit)" ]; then
+    echo -e "${RED}✗ /actuator/metrics/cache.gets is not reachable.${NC}"
+    exit 1
+fi
+
+# Working set: one tab-separated line per item (id, sku, name, qty, location)
+ITEMS=$(curl -s -H "$AUTH_HEADER" "$BACKEND_URL/api/inventory?size=$BENCH_WORKING_SET" \
+    | grep -o '{"id":[^{}]*}' \
+    | sed -E 's/.*"id":([0-9]+).*"sku":"([^"]*)".*"name":"([^"]*)".*"qty":([0-9]+).*"location":"([^"]*)".*/\1\t\2\t\3\t\4\t\5/')
+ITEM_COUNT=$(echo "$ITEMS" | grep -c .)
+if [ "$ITEM_COUNT" -eq 0 ]; then
+    echo -e "${RED}✗ No inventory items found; load test data first.${NC}"
+    exit 1
+fi
+mapfile -t ITEM_LINES <<< "$ITEMS"
+
+echo -e "${CYAN}$BENCH_ROUNDS rounds of $BENCH_OPS operations over $ITEM_COUNT items, $BENCH_WRITE_PERCENT% writes, concurrency $BENCH_CONCURRENCY${NC}"
+echo -e "${YELLOW}Warming the cache with one read of every item...${NC}"
+for line in "${ITEM_LINES[@]}"; do
+    curl -s -o /dev/null -H "$AUTH_HEADER" "$BACKEND_URL/api/inventory/$(cut -f1 <<< "$line")"
+done
+
+printf "%-8s %10s %10s %10s\n" "ROUND" "HITS" "MISSES" "HIT RATIO" | tee -a "$RESULT_LOG"
+RATIOS=()
+for ((round = 1; round <= BENCH_ROUNDS; round++)); do
+    hits_before=$(cache_gets hit)
+    misses_before=$(cache_gets miss)
+
+    for ((i = 0; i < BENCH_OPS; i++)); do
+        line="${ITEM_LINES[RANDOM % ITEM_COUNT]}"
+        if ((RANDOM % 100 < BENCH_WRITE_PERCENT)); then
+            printf 'W\t%s\0' "$line"
+        else
+            printf 'R\t%s\0' "$(cut -f1 <<< "$line")"
+        fi
+    done | xargs -0 -P "$BENCH_CONCURRENCY" -I{} bash -c 'run_op "$1"' _ {}
+
+    hits=$(( $(cache_gets hit) - hits_before ))
+    misses=$(( $(cache_gets miss) - misses_before ))
+    ratio=$(awk -v h="$hits" -v m="$misses" 'BEGIN {printf "%.3f", (h + m) > 0 ? h / (h + m) : 0}')
+    RATIOS+=("$ratio")
+    printf "%-8s %10s %10s %10s\n" "$round" "$hits" "$misses" "$ratio" | tee -a "$RESULT_LOG"
+done
+
+SUMMARY=$(printf "%s\n" "${RATIOS[@]}" | awk 'NR == 1 {min = $1; max = $1} {sum += $1; if ($1 < min) min = $1; if ($1 > max) max = $1}
+    END {printf "mean %.3f, min %.3f, max %.3f", sum / NR, min, max}')
+echo "" | tee -a "$RESULT_LOG"
+echo "Hit ratio: $SUMMARY" | tee -a "$RESULT_LOG"
+
+echo ""
+echo -e "${GREEN}✓ Benchmark complete.${NC} Results written to $RESULT_LOG"
@@ -0,0 +1,114 @@
+#!/bin/bash
+
+# Lookup Miss Benchmark
+# Measures latency and server-side allocation per request for miss-heavy single-item lookups,
+# the traffic of scanners probing unknown barcodes: GET /api/inventory/sku/{sku} and /api/inventory/{id}
+# for keys that do not exist, plus a 90% miss / 10% hit SKU mix. Unknown keys are drawn from a pool of
+# BENCH_MISS_POOL values, so repeated probes can be answered from the misses cache; its hit ratio
+# comes from the cache.gets actuator metric. Run it against two builds to compare them.
+# Author: Victor Tiradoegas
+
+# Colors
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+CYAN='\033[0;36m'
+NC='\033[0m' # No Color
+
+# Configuration
+BACKEND_URL="${BACKEND_URL:-http://localhost:8080}"
+ADMIN_USERNAME="${ADMIN_USERNAME:-admin}"
+ADMIN_PASSWORD="${ADMIN_PASSWORD:-admin123!}"
+BENCH_REQUESTS="${BENCH_REQUESTS:-1000}"
+BENCH_MISS_POOL="${BENCH_MISS_POOL:-100}"
+
+# Results log
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+LOG_DIR="$SCRIPT_DIR/logs"
+mkdir -p "$LOG_DIR"
+RESULT_LOG="$LOG_DIR/benchmark-lookup-misses-$(date +%Y%m%d-%H%M%S).log"
+echo "Lookup Miss Benchmark Started: $(date)" > "$RESULT_LOG"
+
+print_section() {
+    echo ""
+    echo "=========================================="
+    echo "$1"
+    echo "=========================================="
+    echo ""
+}
+
+# Prints the value of an actuator metric, optionally narrowed by a tag query string
+metric_value() {
+    curl -s -H "$AUTH_HEADER" "$BACKEND_URL/actuator/metrics/$1${2:+?$2}" \
+        | grep -o '"value":[0-9.E+-]*' | head -1 | cut -d: -f2 | awk '{printf "%.0f", $1}'
+}
+
+# Prints the path of request number $2 for workload $1
+request_path() {
+    local n=$(( $2 % BENCH_MISS_POOL ))
+    case "$1" in
+        sku-miss) echo "/api/inventory/sku/BENCH-MISS-$n" ;;
+        id-miss)  echo "/api/inventory/$(( 900000000000 + n ))" ;;
+        sku-mix)
+            if (( $2 % 10 == 0 )) && [ -n "$KNOWN_SKU" ]; then
+                echo "/api/inventory/sku/$KNOWN_SKU"
+            else
+                echo "/api/inventory/sku/BENCH-MISS-$n"
+            fi ;;
+    esac
+}
+
+# Runs BENCH_REQUESTS requests of a workload and prints: avg ms, p95 ms, KB allocated per request, misses-cache hit ratio
+run_benchmark() {
+    local workload=$1
+    local before=$(metric_value jvm.gc.memory.allocated)
+    local hits_before=$(metric_value cache.gets "tag=cache:inventoryItemMisses&tag=result:hit")
+    local misses_before=$(metric_value cache.gets "tag=cache:inventoryItemMisses&tag=result:miss")
+    local times=$(for ((i = 0; i < BENCH_REQUESTS; i++)); do
+        curl -s -o /dev/null -w "%{time_total}\n" -H "$AUTH_HEADER" "$BACKEND_URL$(request_path "$workload" "$i")"
+    done)
+    local after=$(metric_value jvm.gc.memory.allocated)
+    local hits=$(( $(metric_value cache.gets "tag=cache:inventoryItemMisses&tag=result:hit") - ${hits_before:-0} ))
+    local misses=$(( $(metric_value cache.gets "tag=cache:inventoryItemMisses&tag=result:miss") - ${misses_before:-0} ))
+
+    local avg=$(echo "$times" | awk '{sum += $1} END {printf "%.2f", sum / NR * 1000}')
+    local p95=$(echo "$times" | sort -n | awk -v n="$BENCH_REQUESTS" 'NR == int(n * 0.95) {printf "%.2f", $1 * 1000}')
+    local kb=$(awk -v a="$after" -v b="$before" -v n="$BENCH_REQUESTS" 'BEGIN {printf "%.1f", (a - b) / n / 1024}')
+    local ratio=$(awk -v h="$hits" -v m="$misses" 'BEGIN {if (h + m > 0) printf "%.3f", h / (h + m); else print "n/a"}')
+    echo "$avg $p95 $kb $ratio"
+}
+
+print_section "Lookup Miss Benchmark"
+
+LOGIN_RESPONSE=$(curl -s -X POST "$BACKEND_URL/api/auth/login" \
+  -H "Content-Type: application/json" \
+  -d "{\"username\":\"$ADMIN_USERNAME\",\"password\":\"$ADMIN_PASSWORD\"}")
+TOKEN=$(echo "$LOGIN_RESPONSE" | grep -o '"token":"[^"]*' | cut -d'"' -f4 | head -1)
+if [ -z "$TOKEN" ]; then
+    echo -e "${RED}✗ Login failed; check ADMIN_USERNAME and ADMIN_PASSWORD.${NC}"
+    exit 1
+fi
+AUTH_HEADER="Authorization: Bearer $TOKEN"
+
+if [ -z "$(metric_value jvm.gc.memory.allocated)" ]; then
+    echo -e "${RED}✗ /actuator/metrics/jvm.gc.memory.allocated is not reachable.${NC}"
+    exit 1
+fi
+if [ -z "$(metric_value cache.gets "tag=cache:inventoryItemMisses")" ]; then
+    echo -e "${YELLOW}⚠ The inventoryItemMisses cache reports no metrics; the hit ratio column will read n/a.${NC}"
+fi
+
+KNOWN_SKU=$(curl -s -H "$AUTH_HEADER" "$BACKEND_URL/api/inventory?size=1" | grep -o '"sku":"[^"]*' | cut -d'"' -f4 | head -1)
+if [ -z "$KNOWN_SKU" ]; then
+    echo -e "${YELLOW}⚠ No inventory items found; the sku-mix workload will only contain misses.${NC}"
+fi
+
+echo -e "${CYAN}$BENCH_REQUESTS requests per workload over $BENCH_MISS_POOL unknown keys${NC}"
+printf "%-10s %10s %10s %12s %16s\n" "WORKLOAD" "AVG (ms)" "P95 (ms)" "KB/REQUEST" "MISS-CACHE HITS" | tee -a "$RESULT_LOG"
+for workload in sku-miss id-miss sku-mix; do
+    read avg p95 kb ratio <<< "$(run_benchmark "$workload")"
+    printf "%-10s %10s %10s %12s %16s\n" "$workload" "$avg" "$p95" "$kb" "$ratio" | tee -a "$RESULT_LOG"
+done
+
+echo ""
+echo -e "${GREEN}✓ Benchmark complete.${NC} Results written to $RESULT_LOG"
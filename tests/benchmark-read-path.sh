@@ -0,0 +1,105 @@
+#!/bin/bash
+
+# Read Path Benchmark
+# Measures latency and server-side allocation per request for the paged GET endpoints.
+# Allocation comes from the jvm.gc.memory.allocated metric, which advances at each young
+# collection, so use enough requests (BENCH_REQUESTS) to span several collections.
+# Run it against two builds (e.g. before and after a change) to compare them.
+# Author: Victor Tiradoegas
+
+# Colors
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+CYAN='\033[0;36m'
+NC='\033[0m' # No Color
+
+# Configuration
+BACKEND_URL="${BACKEND_URL:-http://localhost:8080}"
+ADMIN_USERNAME="${ADMIN_USERNAME:-admin}"
+ADMIN_PASSWORD="${ADMIN_PASSWORD:-admin123!}"
+BENCH_REQUESTS="${BENCH_REQUESTS:-500}"
+BENCH_WARMUP="${BENCH_WARMUP:-100}"
+BENCH_PAGE_SIZE="${BENCH_PAGE_SIZE:-100}"
+
+# Results log
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+LOG_DIR="$SCRIPT_DIR/logs"
+mkdir -p "$LOG_DIR"
+RESULT_LOG="$LOG_DIR/benchmark-read-path-$(date +%Y%m%d-%H%M%S).log"
+echo "Read Path Benchmark Started: $(date)" > "$RESULT_LOG"
+
+print_section() {
+    echo ""
+    echo "=========================================="
+    echo "$1"
+    echo "=========================================="
+    echo ""
+}
+
+# Returns the total bytes allocated by the JVM so far
+allocated_bytes() {
+    curl -s -H "$AUTH_HEADER" "$BACKEND_URL/actuator/metrics/jvm.gc.memory.allocated" \
+        | grep -o '"value":[0-9.E+-]*' | head -1 | cut -d: -f2 | awk '{printf "%.0f", $1}'
+}
+
+# Requests the path BENCH_REQUESTS times and prints: avg ms, p95 ms, KB allocated per request
+run_benchmark() {
+    local path=$1
+    for ((i = 0; i < BENCH_WARMUP; i++)); do
+        curl -s -o /dev/null -H "$AUTH_HEADER" "$BACKEND_URL$path"
+    done
+
+    local before=$(allocated_bytes)
+    local times=$(for ((i = 0; i < BENCH_REQUESTS; i++)); do
+        curl -s -o /dev/null -w "%{time_total}\n" -H "$AUTH_HEADER" "$BACKEND_URL$path"
+    done)
+    local after=$(allocated_bytes)
+
+    local avg=$(echo "$times" | awk '{sum += $1} END {printf "%.2f", sum / NR * 1000}')
+    local p95=$(echo "$times" | sort -n | awk -v n="$BENCH_REQUESTS" 'NR == int(n * 0.95) {printf "%.2f", $1 * 1000}')
+    local kb=$(awk -v a="$after" -v b="$before" -v n="$BENCH_REQUESTS" 'BEGIN {printf "%.1f", (a - b) / n / 1024}')
+    echo "$avg $p95 $kb"
+}
+
+print_section "Read Path Benchmark"
+
+LOGIN_RESPONSE=$(curl -s -X POST "$BACKEND_URL/api/auth/login" \
+  -H "Content-Type: application/json" \
+  -d "{\"username\":\"$ADMIN_USERNAME\",\"password\":\"$ADMIN_PASSWORD\"}")
+TOKEN=$(echo "$LOGIN_RESPONSE" | grep -o '"token":"[^"]*' | cut -d'"' -f4 | head -1)
+if [ -z "$TOKEN" ]; then
+    echo -e "${RED}✗ Login failed; check ADMIN_USERNAME and ADMIN_PASSWORD.${NC}"
+    exit 1
+fi
+AUTH_HEADER="Authorization: Bearer $TOKEN"
+
+if [ -z "$(allocated_bytes)" ]; then
+    echo -e "${RED}✗ /actuator/metrics/jvm.gc.memory.allocated is not reachable.${NC}"
+    exit 1
+fi
+
+LOCATION=$(curl -s -H "$AUTH_HEADER" "$BACKEND_URL/api/inventory?size=1" | grep -o '"location":"[^"]*' | cut -d'"' -f4 | head -1)
+if [ -z "$LOCATION" ]; then
+    echo -e "${YELLOW}⚠ No inventory items found; results will only cover empty pages.${NC}"
+fi
+
+ENDPOINTS=(
+    "/api/inventory?size=$BENCH_PAGE_SIZE"
+    "/api/inventory?size=$BENCH_PAGE_SIZE&count=none"
+    "/api/inventory/location/${LOCATION:-Warehouse-A}?size=$BENCH_PAGE_SIZE"
+    "/api/inventory?size=$BENCH_PAGE_SIZE&fields=sku,qty,location"
+    "/api/audit-events?size=$BENCH_PAGE_SIZE"
+    "/api/audit-events?size=$BENCH_PAGE_SIZE&count=none"
+    "/api/audit-events?size=$BENCH_PAGE_SIZE&fields=eventType,entityId,timestamp"
+)
+
+echo -e "${CYAN}$BENCH_REQUESTS requests per endpoint after $BENCH_WARMUP warm-up requests${NC}"
+printf "%-70s %10s %10s %12s\n" "ENDPOINT" "AVG (ms)" "P95 (ms)" "KB/REQUEST" | tee -a "$RESULT_LOG"
+for path in "${ENDPOINTS[@]}"; do
+    read avg p95 kb <<< "$(run_benchmark "$path")"
+    printf "%-70s %10s %10s %12s\n" "$path" "$avg" "$p95" "$kb" | tee -a "$RESULT_LOG"
+done
+
+echo ""
+echo -e "${GREEN}✓ Benchmark complete.${NC} Results written to $RESULT_LOG"
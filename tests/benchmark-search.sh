@@ -0,0 +1,107 @@
+#!/bin/bash
+
+# Substring Search Benchmark
+# Compares trigram-indexed SKU/name search against a sequential scan at several table sizes.
+# Runs against a scratch "bench" schema and never touches application data.
+# Author: Victor Tiradoegas
+
+# Colors
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+CYAN='\033[0;36m'
+NC='\033[0m' # No Color
+
+# Configuration
+DB_HOST="${DB_HOST:-localhost}"
+DB_PORT="${DB_PORT:-5432}"
+DB_NAME="${DATABASE_NAME:-invdb}"
+DB_USER="${DATABASE_USERNAME:-invuser}"
+DB_PASSWORD="${DATABASE_PASSWORD:-invpass}"
+BENCH_ROWS="${BENCH_ROWS:-1000000 10000000}"
+BENCH_PATTERNS="${BENCH_PATTERNS:-0042 sku-00777 bolt hex}"
+
+# Results log
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+LOG_DIR="$SCRIPT_DIR/logs"
+mkdir -p "$LOG_DIR"
+RESULT_LOG="$LOG_DIR/benchmark-search-$(date +%Y%m%d-%H%M%S).log"
+echo "Search Benchmark Started: $(date)" > "$RESULT_LOG"
+
+print_section() {
+    echo ""
+    echo "=========================================="
+    echo "$1"
+    echo "=========================================="
+    echo ""
+}
+
+# Determine psql command (try local first, then Docker)
+USE_DOCKER=0
+if command -v psql >/dev/null 2>&1; then
+    USE_DOCKER=0
+elif docker ps --filter "name=inventory-db" --format "{{.Names}}" | grep -q "inventory-db"; then
+    echo -e "${YELLOW}⚠ Local psql not found, using Docker container...${NC}"
+    USE_DOCKER=1
+else
+    echo -e "${RED}✗ psql not found and Docker container 'inventory-db' not running.${NC}"
+    exit 1
+fi
+
+execute_sql() {
+    local sql=$1
+    if [ $USE_DOCKER -eq 0 ]; then
+        PGPASSWORD="$DB_PASSWORD" psql -h "$DB_HOST" -p "$DB_PORT" -U "$DB_USER" -d "$DB_NAME" -t -A -c "$sql" 2>&1
+    else
+        echo "$sql" | docker exec -i inventory-db psql -U "$DB_USER" -d "$DB_NAME" -t -A 2>&1
+    fi
+}
+
+# Runs EXPLAIN ANALYZE for a query and prints its execution time in ms
+execution_time() {
+    local settings=$1
+    local query=$2
+    execute_sql "$settings EXPLAIN (ANALYZE, BUFFERS) $query" | grep "Execution Time" | sed -E 's/.*: ([0-9.]+) ms/\1/'
+}
+
+# Seeds the scratch table with the given number of rows
+seed_rows() {
+    local rows=$1
+    execute_sql "
+        DROP SCHEMA IF EXISTS bench CASCADE;
+        CREATE SCHEMA bench;
+        CREATE TABLE bench.inventory_items (LIKE public.inventory_items INCLUDING ALL);
+        INSERT INTO bench.inventory_items (sku, name, qty, location, updated_at)
+        SELECT 'SKU-' || lpad(g::text, 8, '0'),
+               (ARRAY['Hex Bolt', 'Wing Nut', 'Flat Washer', 'Wood Screw', 'Anchor'])[1 + g % 5] || ' ' || (g % 997),
+               g % 500,
+               'Warehouse-' || chr(65 + g % 8),
+               now() - (g % 86400) * interval '1 second'
+        FROM generate_series(1, $rows) AS g;
+        ANALYZE bench.inventory_items;" > /dev/null
+}
+
+print_section "Trigram Substring Search Benchmark"
+
+if [ "$(execute_sql "SELECT count(*) FROM pg_extension WHERE extname = 'pg_trgm'")" != "1" ]; then
+    echo -e "${RED}✗ pg_trgm is not installed; start the backend once so Flyway can apply V6.${NC}"
+    exit 1
+fi
+
+printf "%-10s %-8s %-12s %14s %14s\n" "ROWS" "COLUMN" "PATTERN" "SEQ SCAN (ms)" "TRIGRAM (ms)"
+for rows in $BENCH_ROWS; do
+    echo -e "${CYAN}Seeding $rows rows...${NC}"
+    seed_rows "$rows"
+    for column in sku name; do
+        for pattern in $BENCH_PATTERNS; do
+            query="SELECT * FROM bench.inventory_items WHERE lower($column) LIKE '%$pattern%' ORDER BY updated_at DESC LIMIT 50;"
+            seq=$(execution_time "SET enable_bitmapscan = off; SET enable_indexscan = off;" "$query")
+            trgm=$(execution_time "" "$query")
+            printf "%-10s %-8s %-12s %14s %14s\n" "$rows" "$column" "$pattern" "$seq" "$trgm" | tee -a "$RESULT_LOG"
+        done
+    done
+done
+
+execute_sql "DROP SCHEMA IF EXISTS bench CASCADE;" > /dev/null
+echo ""
+echo -e "${GREEN}✓ Benchmark complete.${NC} Results written to $RESULT_LOG"
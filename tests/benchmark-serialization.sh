@@ -0,0 +1,111 @@
+#!/bin/bash
+
+# Serialization Benchmark
+# Measures payload size, latency and server CPU per request for each response encoding the API
+# negotiates: JSON, gzipped JSON, Smile and CBOR. CPU comes from the process.cpu.time metric, so
+# other load on the server skews it; run on an otherwise idle instance.
+# Run it against two builds (e.g. before and after a change) to compare them.
+# Author: Victor Tiradoegas
+
+# Colors
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+CYAN='\033[0;36m'
+NC='\033[0m' # No Color
+
+# Configuration
+BACKEND_URL="${BACKEND_URL:-http://localhost:8080}"
+ADMIN_USERNAME="${ADMIN_USERNAME:-admin}"
+ADMIN_PASSWORD="${ADMIN_PASSWORD:-admin123!}"
+BENCH_REQUESTS="${BENCH_REQUESTS:-200}"
+BENCH_WARMUP="${BENCH_WARMUP:-50}"
+BENCH_PAGE_SIZE="${BENCH_PAGE_SIZE:-1000}"
+
+# Results log
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+LOG_DIR="$SCRIPT_DIR/logs"
+mkdir -p "$LOG_DIR"
+RESULT_LOG="$LOG_DIR/benchmark-serialization-$(date +%Y%m%d-%H%M%S).log"
+echo "Serialization Benchmark Started: $(date)" > "$RESULT_LOG"
+
+print_section() {
+    echo ""
+    echo "=========================================="
+    echo "$1"
+    echo "=========================================="
+    echo ""
+}
+
+# Returns the CPU time used by the server process so far, in nanoseconds
+cpu_nanos() {
+    curl -s -H "$AUTH_HEADER" "$BACKEND_URL/actuator/metrics/process.cpu.time" \
+        | grep -o '"value":[0-9.E+-]*' | head -1 | cut -d: -f2 | awk '{printf "%.0f", $1}'
+}
+
+# Requests the path BENCH_REQUESTS times with the given curl options and prints: KB per response, avg ms, CPU ms per request
+run_benchmark() {
+    local path=$1
+    shift
+    for ((i = 0; i < BENCH_WARMUP; i++)); do
+        curl -s -o /dev/null -H "$AUTH_HEADER" "$@" "$BACKEND_URL$path"
+    done
+
+    local before=$(cpu_nanos)
+    local results=$(for ((i = 0; i < BENCH_REQUESTS; i++)); do
+        curl -s -o /dev/null -w "%{size_download} %{time_total}\n" -H "$AUTH_HEADER" "$@" "$BACKEND_URL$path"
+    done)
+    local after=$(cpu_nanos)
+
+    local kb=$(echo "$results" | awk '{sum += $1} END {printf "%.1f", sum / NR / 1024}')
+    local avg=$(echo "$results" | awk '{sum += $2} END {printf "%.2f", sum / NR * 1000}')
+    local cpu=$(awk -v a="$after" -v b="$before" -v n="$BENCH_REQUESTS" 'BEGIN {printf "%.2f", (a - b) / n / 1000000}')
+    echo "$kb $avg $cpu"
+}
+
+print_section "Serialization Benchmark"
+
+LOGIN_RESPONSE=$(curl -s -X POST "$BACKEND_URL/api/auth/login" \
+  -H "Content-Type: application/json" \
+  -d "{\"username\":\"$ADMIN_USERNAME\",\"password\":\"$ADMIN_PASSWORD\"}")
+TOKEN=$(echo "$LOGIN_RESPONSE" | grep -o '"token":"[^"]*' | cut -d'"' -f4 | head -1)
+if [ -z "$TOKEN" ]; then
+    echo -e "${RED}✗ Login failed; check ADMIN_USERNAME and ADMIN_PASSWORD.${NC}"
+    exit 1
+fi
+AUTH_HEADER="Authorization: Bearer $TOKEN"
+
+if [ -z "$(cpu_nanos)" ]; then
+    echo -e "${RED}✗ /actuator/metrics/process.cpu.time is not reachable.${NC}"
+    exit 1
+fi
+
+TOTAL=$(curl -s -H "$AUTH_HEADER" "$BACKEND_URL/api/inventory?size=1" | grep -o '"totalElements":[0-9]*' | cut -d: -f2)
+if [ "${TOTAL:-0}" -lt "$BENCH_PAGE_SIZE" ]; then
+    echo -e "${YELLOW}⚠ Only ${TOTAL:-0} inventory items; pages will be smaller than $BENCH_PAGE_SIZE rows.${NC}"
+fi
+
+ENDPOINTS=(
+    "/api/inventory?size=$BENCH_PAGE_SIZE"
+    "/api/audit-events?size=$BENCH_PAGE_SIZE"
+)
+ENCODINGS=("json" "json+gzip" "smile" "cbor")
+
+# The conditional GET interceptor would answer repeated requests with 304, so never send If-None-Match
+echo -e "${CYAN}$BENCH_REQUESTS requests per endpoint and encoding after $BENCH_WARMUP warm-up requests${NC}"
+printf "%-45s %-10s %12s %10s %14s\n" "ENDPOINT" "ENCODING" "KB/RESPONSE" "AVG (ms)" "CPU ms/REQUEST" | tee -a "$RESULT_LOG"
+for path in "${ENDPOINTS[@]}"; do
+    for encoding in "${ENCODINGS[@]}"; do
+        case $encoding in
+            json)      opts=(-H "Accept: application/json") ;;
+            json+gzip) opts=(-H "Accept: application/json" -H "Accept-Encoding: gzip") ;;
+            smile)     opts=(-H "Accept: application/x-jackson-smile") ;;
+            cbor)      opts=(-H "Accept: application/cbor") ;;
+        esac
+        read kb avg cpu <<< "$(run_benchmark "$path" "${opts[@]}")"
+        printf "%-45s %-10s %12s %10s %14s\n" "$path" "$encoding" "$kb" "$avg" "$cpu" | tee -a "$RESULT_LOG"
+    done
+done
+
+echo ""
+echo -e "${GREEN}✓ Benchmark complete.${NC} Results written to $RESULT_LOG"
@@ -399,12 +399,12 @@ test_sql "idx_location index exists" \
     "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'inventory_items' AND indexname = 'idx_location';" \
     "1"
 
-test_sql "idx_updated_at index exists" \
-    "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'inventory_items' AND indexname = 'idx_updated_at';" \
+test_sql "idx_updated_at_id index exists" \
+    "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'inventory_items' AND indexname = 'idx_updated_at_id';" \
     "1"
 
-test_sql "idx_location_updated composite index exists" \
-    "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'inventory_items' AND indexname = 'idx_location_updated';" \
+test_sql "idx_location_updated_id composite index exists" \
+    "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'inventory_items' AND indexname = 'idx_location_updated_id';" \
     "1"
 
 echo ""
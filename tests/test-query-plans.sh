@@ -0,0 +1,97 @@
+#!/bin/bash
+
+# Query Plan Test Suite
+# Verifies that every filter combination accepted by GET /api/inventory/query has an index-backed plan.
+# Each combination is planned without ORDER BY or LIMIT and with sequential scans disabled; it passes only
+# if one of its own filter columns appears in an "Index Cond" (index, index-only or bitmap index scan).
+# A Seq Scan, or a full index scan that merely filters rows, means no index can serve that combination.
+# Author: Victor Tiradoegas
+
+# Colors
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+YELLOW='\033[1;33m'
+NC='\033[0m' # No Color
+
+# Configuration
+DB_HOST="${DB_HOST:-localhost}"
+DB_PORT="${DB_PORT:-5432}"
+DB_NAME="${DATABASE_NAME:-invdb}"
+DB_USER="${DATABASE_USERNAME:-invuser}"
+DB_PASSWORD="${DATABASE_PASSWORD:-invpass}"
+
+# Test counters
+PASSED=0
+FAILED=0
+
+# Determine psql command (try local first, then Docker)
+USE_DOCKER=0
+if command -v psql >/dev/null 2>&1; then
+    USE_DOCKER=0
+elif docker ps --filter "name=inventory-db" --format "{{.Names}}" | grep -q "inventory-db"; then
+    echo -e "${YELLOW}⚠ Local psql not found, using Docker container...${NC}"
+    USE_DOCKER=1
+else
+    echo -e "${RED}✗ psql not found and Docker container 'inventory-db' not running.${NC}"
+    exit 1
+fi
+
+execute_sql() {
+    local sql=$1
+    if [ $USE_DOCKER -eq 0 ]; then
+        PGPASSWORD="$DB_PASSWORD" psql -h "$DB_HOST" -p "$DB_PORT" -U "$DB_USER" -d "$DB_NAME" -t -A -c "$sql" 2>&1
+    else
+        echo "$sql" | docker exec -i inventory-db psql -U "$DB_USER" -d "$DB_NAME" -t -A 2>&1
+    fi
+}
+
+# Filter predicates in the same form the JPA specifications generate
+NAMES=("location" "sku" "name" "minQty" "maxQty" "updatedFrom" "updatedTo")
+COLUMNS=("location" "sku" "name" "qty" "qty" "updated_at" "updated_at")
+PREDICATES=(
+    "location = 'Warehouse-A'"
+    "lower(sku) LIKE '%abc%'"
+    "lower(name) LIKE '%widget%'"
+    "qty >= 10"
+    "qty <= 100"
+    "updated_at >= now() - interval '7 days'"
+    "updated_at < now()"
+)
+
+echo "=========================================="
+echo "Inventory Query Plan Tests"
+echo "=========================================="
+echo ""
+
+count=${#PREDICATES[@]}
+for ((mask = 1; mask < (1 << count); mask++)); do
+    where=""
+    label=""
+    columns=""
+    for ((i = 0; i < count; i++)); do
+        if (( mask & (1 << i) )); then
+            where="${where:+$where AND }${PREDICATES[$i]}"
+            label="${label:+$label+}${NAMES[$i]}"
+            columns="${columns:+$columns|}${COLUMNS[$i]}"
+        fi
+    done
+
+    plan=$(execute_sql "SET enable_seqscan = off; EXPLAIN SELECT * FROM inventory_items WHERE $where;")
+    if ! echo "$plan" | grep "Index Cond:" | grep -qE "\b($columns)\b"; then
+        echo -e "${RED}✗ FAIL${NC} $label"
+        echo "$plan" | sed 's/^/    /'
+        ((FAILED++))
+    else
+        ((PASSED++))
+    fi
+done
+
+echo ""
+echo "Combinations with an index-backed plan: $PASSED"
+echo "Combinations without: $FAILED"
+
+if [ $FAILED -gt 0 ]; then
+    exit 1
+fi
+echo -e "${GREEN}✓ All filter combinations are index-backed${NC}"
+exit 0